@@ -0,0 +1,70 @@
+package ua.leskivproduction.fifteenth.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares a JMH JSON result with the baseline, benchmark by benchmark,
+ * and fails when any of them got slower than the tolerance allows.
+ *
+ * Usage: {@code BaselineCompare baseline.json result.json [tolerance]}, tolerance defaults to 0.1.
+ * All benchmarks here measure average time, so a bigger score is worse.
+ */
+public class BaselineCompare {
+    private static final Pattern BENCHMARK = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)\\}");
+    private static final Pattern SCORE = Pattern.compile(
+            "\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE]+)");
+
+    static Map<String, Double> scores(String json) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        String[] runs = json.split("(?=\"jmhVersion\")");
+        for (String run : runs) {
+            Matcher benchmark = BENCHMARK.matcher(run);
+            Matcher score = SCORE.matcher(run);
+            if (!benchmark.find() || !score.find())
+                continue;
+            Matcher params = PARAMS.matcher(run);
+            String name = benchmark.group(1);
+            if (params.find())
+                name += " {" + params.group(1).replaceAll("\\s+", "") + "}";
+            scores.put(name, Double.parseDouble(score.group(1)));
+        }
+        return scores;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCompare baseline.json result.json [tolerance]");
+            System.exit(1);
+        }
+        Map<String, Double> baseline = scores(new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8));
+        Map<String, Double> current = scores(new String(Files.readAllBytes(Paths.get(args[1])), StandardCharsets.UTF_8));
+        double tolerance = args.length > 2? Double.parseDouble(args[2]) : 0.1;
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %12.3f   (new)%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double ratio = entry.getValue() / before;
+            boolean regressed = ratio > 1 + tolerance;
+            if (regressed)
+                regressions++;
+            System.out.printf("%-90s %12.3f %+7.1f%%%s%n", entry.getKey(), entry.getValue(),
+                    (ratio-1)*100, regressed? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions+" benchmark(s) slower than the baseline");
+            System.exit(2);
+        }
+    }
+}
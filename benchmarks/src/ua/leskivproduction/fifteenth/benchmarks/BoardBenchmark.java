@@ -0,0 +1,92 @@
+package ua.leskivproduction.fifteenth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ua.leskivproduction.fifteenth.model.Board;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-board operations the searches lean on, each invocation goes over the whole instance set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    static final int INSTANCES = 64;
+
+    @Param({"3", "4", "5"})
+    int dimension;
+
+    Board[] boards;
+    Board[] copies;
+
+    @Setup
+    public void setup() {
+        PackedBoard[] packed = Instances.scrambled(dimension, INSTANCES, Instances.walkLength(dimension));
+        boards = new Board[INSTANCES];
+        copies = new Board[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            boards[i] = new Board(packed[i]);
+            copies[i] = new Board(packed[i]);
+        }
+    }
+
+    @Benchmark
+    public int manhattan() {
+        int sum = 0;
+        for (Board board : boards)
+            sum += board.manhattan();
+        return sum;
+    }
+
+    @Benchmark
+    public void neighbors(Blackhole blackhole) {
+        for (Board board : boards) {
+            for (Board neighbor : board.neighbors())
+                blackhole.consume(neighbor);
+        }
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        int sum = 0;
+        for (Board board : boards)
+            sum += board.hashCode();
+        return sum;
+    }
+
+    @Benchmark
+    public int equalBoards() {
+        int equal = 0;
+        for (int i = 0; i < INSTANCES; i++) {
+            if (boards[i].equals(copies[i]))
+                equal++;
+        }
+        return equal;
+    }
+
+    @Benchmark
+    public int solvable() {
+        int solvable = 0;
+        for (Board board : boards) {
+            if (board.solvable())
+                solvable++;
+        }
+        return solvable;
+    }
+}
@@ -0,0 +1,53 @@
+package ua.leskivproduction.fifteenth.benchmarks;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fixed instance sets: random walks from the goal, so every board is solvable
+ * and the same seed always gives the same boards.
+ */
+final class Instances {
+    static final long SEED = 15;
+
+    private Instances() {
+    }
+
+    static PackedBoard[] scrambled(int dimension, int count, int walkLength) {
+        SplittableRandom random = new SplittableRandom(SEED + dimension);
+        Direction[] directions = Direction.values();
+        PackedBoard[] boards = new PackedBoard[count];
+        for (int i = 0; i < count; i++) {
+            PackedBoard board = PackedBoard.goal(dimension);
+            Direction last = null;
+            for (int step = 0; step < walkLength; ) {
+                Direction dir = directions[random.nextInt(directions.length)];
+                PackedBoard moved = dir.opposite() == last? null : board.move(dir);
+                if (moved != null) {
+                    board = moved;
+                    last = dir;
+                    step++;
+                }
+            }
+            boards[i] = board;
+        }
+        return boards;
+    }
+
+    /**
+     * Walk long enough to give a practically uniform board of the size,
+     * bigger boards get shorter walks to stay within the optimal solvers' reach.
+     */
+    static int walkLength(int dimension) {
+        switch (dimension) {
+            case 3:
+                return 200;
+            case 4:
+                return 50;
+            default:
+                return 30;
+        }
+    }
+}
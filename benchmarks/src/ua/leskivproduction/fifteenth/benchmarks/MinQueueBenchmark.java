@@ -0,0 +1,67 @@
+package ua.leskivproduction.fifteenth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ua.leskivproduction.fifteenth.model.Board;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.utils.IndexedMinHeap;
+import ua.leskivproduction.fifteenth.utils.MinQueue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the queue with boards, ordered by their Manhattan distance, and drains it.
+ * The indexed heap gets the same priorities for board ids, as the engines use it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinQueueBenchmark {
+    @Param({"1024", "65536"})
+    int size;
+
+    Board[] boards;
+    long[] priorities;
+
+    @Setup
+    public void setup() {
+        PackedBoard[] packed = Instances.scrambled(4, size, Instances.walkLength(4));
+        boards = new Board[size];
+        for (int i = 0; i < size; i++)
+            boards[i] = new Board(packed[i]);
+        priorities = new long[size];
+        for (int i = 0; i < size; i++)
+            priorities[i] = boards[i].manhattan();
+    }
+
+    @Benchmark
+    public void addRemoveMin(Blackhole blackhole) {
+        MinQueue<Board> queue = new MinQueue<>();
+        for (Board board : boards)
+            queue.add(board);
+        while (queue.size() > 0)
+            blackhole.consume(queue.removeMin());
+    }
+
+    @Benchmark
+    public void indexedAddRemoveMin(Blackhole blackhole) {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        for (int i = 0; i < size; i++)
+            heap.add(i, priorities[i]);
+        while (heap.size() > 0)
+            blackhole.consume(heap.removeMin());
+    }
+}
@@ -0,0 +1,58 @@
+package ua.leskivproduction.fifteenth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.leskivproduction.fifteenth.model.Board;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.Solver;
+import ua.leskivproduction.fifteenth.model.SolverEngine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole solves with the default engine and budget of every size. The engine is made once,
+ * tables included, and the solution cache is left out, so each run searches from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    static final int INSTANCES = 8;
+
+    @Param({"3", "4", "5"})
+    int dimension;
+
+    Board[] boards;
+    SolverEngine engine;
+
+    @Setup
+    public void setup() {
+        PackedBoard[] packed = Instances.scrambled(dimension, INSTANCES, Instances.walkLength(dimension));
+        boards = new Board[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++)
+            boards[i] = new Board(packed[i]);
+        engine = Solver.defaultEngine(dimension);
+    }
+
+    @Benchmark
+    public int solve() {
+        int moves = 0;
+        for (Board board : boards) {
+            Solver solver = new Solver(board, engine, Solver.defaultBudget(dimension));
+            moves += solver.getHandle().join().moves().length;
+        }
+        return moves;
+    }
+}
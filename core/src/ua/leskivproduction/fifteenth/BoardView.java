@@ -0,0 +1,121 @@
+package ua.leskivproduction.fifteenth;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import ua.leskivproduction.fifteenth.model.Board;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.utils.Lerper;
+
+/**
+ * Draws a {@link Board} and animates its moves. The board itself knows nothing about
+ * rendering, the view listens to its moves and works out the background color when drawing.
+ */
+public class BoardView implements Board.MoveListener {
+    //between cells interval for drawing
+    private final static float SPACING_COEF = 0.15f;
+    private final static float TRANSLATE_SPEED = 0.09f;
+
+    private Board board;
+
+    private float translateProgress;
+    private int lastMoved = -1;
+    private Direction lastDir = null;
+
+    private float curRed = 0;
+
+    public BoardView(Board board) {
+        setBoard(board);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public void setBoard(Board board) {
+        if (this.board != null)
+            this.board.setMoveListener(null);
+        this.board = board;
+        board.setMoveListener(this);
+        lastMoved = -1;
+        translateProgress = 0;
+    }
+
+    @Override
+    public void moved(int tile, Direction dir) {
+        lastMoved = tile;
+        lastDir = dir;
+    }
+
+    private float goalRed() {
+        int dimension = board.getDimension();
+        return (float)(Math.min(255, 255*1.3*board.manhattan()/(dimension < 4? 20 : Math.pow(dimension, 4))));
+    }
+
+    public void draw(SpriteBatch batch, ShapeRenderer shapeRenderer, BitmapFont font,
+                     Texture[] cells, int x, int y, int sideSize) {
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        curRed = Lerper.lerp(curRed, goalRed(), Gdx.graphics.getDeltaTime());
+        shapeRenderer.setColor(curRed/255, 1f-curRed/255, 0, 1);
+        shapeRenderer.rect(x-sideSize/2, y-sideSize/2, sideSize, sideSize);
+        shapeRenderer.end();
+
+        int dimension = board.getDimension();
+        int cellSize = sideSize / dimension;
+        float cellDrawnSize = cellSize*(1-SPACING_COEF);
+        float offsetX, offsetY;
+        offsetX = offsetY = (sideSize*SPACING_COEF)/(2*dimension);
+
+        if (lastMoved != -1) {
+            if (translateProgress < 1)
+                translateProgress += Gdx.graphics.getDeltaTime()*TRANSLATE_SPEED*cellSize;
+            if (translateProgress >= 1) {
+                lastMoved = -1;
+                translateProgress = 0;
+            }
+        }
+
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        batch.begin();
+        boolean valid = board.isValid();
+        for (int cnt = 0; cnt < dimension*dimension; cnt++) {
+            int cell = board.tileAt(cnt);
+
+            float cx, cy;
+
+            if (cell != lastMoved) {
+                cx = (cnt%dimension)*cellSize;
+                cy = (cnt/dimension +1)*cellSize;
+            } else {
+                cx = (cnt%dimension +
+                        (lastDir == Direction.LEFT? 1-translateProgress : 0) +
+                        (lastDir == Direction.RIGHT? -1+translateProgress : 0))*cellSize;
+                cy = (cnt/dimension + 1 +
+                        (lastDir == Direction.UP? 1-translateProgress : 0) +
+                        (lastDir == Direction.DOWN? -1+translateProgress : 0))*cellSize;
+            }
+
+            if (cell != -1 ) {
+                batch.draw(cells[cell],
+                        x + offsetX - sideSize / 2 + cx,
+                        y + offsetY + sideSize / 2 - cy,
+                        cellDrawnSize, cellDrawnSize);
+
+                font.draw(batch, "" + (cell + 1),
+                        x + offsetX - sideSize / 2 + cx + cellDrawnSize * 0.8f,
+                        y + offsetY + sideSize / 2 - cy + cellDrawnSize * 0.2f);
+            } else if (!valid) {
+                shapeRenderer.setColor(0, 0, 0, 1);
+                shapeRenderer.rect(
+                        x + offsetX - sideSize / 2 + cx,
+                        y + offsetY + sideSize / 2 - cy,
+                        cellDrawnSize, cellDrawnSize);
+            }
+        }
+        batch.end();
+        shapeRenderer.end();
+    }
+
+}
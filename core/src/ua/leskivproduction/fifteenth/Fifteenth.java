@@ -12,15 +12,18 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import ua.leskivproduction.fifteenth.model.Board;
+import ua.leskivproduction.fifteenth.model.BoardGenerator;
+import ua.leskivproduction.fifteenth.model.SearchBudget;
 import ua.leskivproduction.fifteenth.model.Solver;
 import ua.leskivproduction.fifteenth.utils.Lerper;
 
-import java.awt.*;
 import java.text.DecimalFormat;
 
 public class Fifteenth extends ApplicationAdapter {
     private static final int IMAGES_CNT = 15;
     private static final int DIMENSION = 4;
+    // from this size until Solver.CONSTRUCTIVE_DIMENSION moves are shown while the solver is still searching
+    private static final int REAL_TIME_DIMENSION = 5;
 
     private SpriteBatch batch;
     private ShapeRenderer shapeRenderer;
@@ -28,6 +31,7 @@ public class Fifteenth extends ApplicationAdapter {
 
     private Texture[] cellTextures;
     private Board curBoard;
+    private BoardView boardView;
 
     private BitmapFont captainFont;
     private BitmapFont jokerSmallFont;
@@ -38,9 +42,11 @@ public class Fifteenth extends ApplicationAdapter {
     private State curState = State.IDLE;
 
     private final static float SHUFFLE_TIME = 2f;
-    private final static float SHUFFLE_STEPS = 2000;
+    // uniformly random boards flashed while shuffling, the last one stays
+    private final static float SHUFFLE_BOARDS = 40;
     private float shufflingTime;
     private int shuffledCnt;
+    private final BoardGenerator generator = new BoardGenerator(System.nanoTime());
 
     private Solver solver;
     private int insertedCellNum;
@@ -79,6 +85,7 @@ public class Fifteenth extends ApplicationAdapter {
             cellTextures[i] = new Texture("core/assets/cells/" + (i % IMAGES_CNT) + ".png");
 
         curBoard = new Board(DIMENSION);
+        boardView = new BoardView(curBoard);
         cam = new OrthographicCamera(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
         karp = new Texture("core/assets/cells/4.png");
@@ -122,7 +129,9 @@ public class Fifteenth extends ApplicationAdapter {
                             }
                             curState = curState != State.SOLVING ? State.SOLVING : State.IDLE;
                             if (curState == State.SOLVING && (solver == null || !solver.isSolving())) {
-                                solver = new Solver(curBoard);
+                                solver = DIMENSION >= REAL_TIME_DIMENSION && DIMENSION < Solver.CONSTRUCTIVE_DIMENSION?
+                                        new Solver(curBoard, Solver.realTimeEngine(DIMENSION), SearchBudget.UNLIMITED) :
+                                        new Solver(curBoard);
                             } else {
                                 solver = null;
                             }
@@ -134,9 +143,11 @@ public class Fifteenth extends ApplicationAdapter {
                             curState = State.CRAFTING;
                             curBoard = new Board(DIMENSION);
                             curBoard.clear();
+                            boardView.setBoard(curBoard);
                         } else if (curState == State.CRAFTING) {
                             if (!curBoard.isValid())
                                 curBoard = new Board(DIMENSION);
+                            boardView.setBoard(curBoard);
                             curState = State.IDLE;
                         }
                         break;
@@ -160,6 +171,7 @@ public class Fifteenth extends ApplicationAdapter {
                         if (++insertedCellNum == DIMENSION*DIMENSION-1) {
                             if (!curBoard.isValid())
                                 curBoard = new Board(DIMENSION);
+                            boardView.setBoard(curBoard);
                             curState = State.IDLE;
                         }
                     }
@@ -202,13 +214,14 @@ public class Fifteenth extends ApplicationAdapter {
         beast.setVolume(epicTransition > 0.05? epicTransition : 0);
         cam.zoom = 1-epicTransition*2/3;
 
-        Point domPos = curBoard.getCell(4);
-        if (domPos != null && epicTransition > 0.05) {
+        int domCell = curBoard.cellOf(4);
+        if (domCell != -1 && epicTransition > 0.05) {
             int cellSize = Gdx.graphics.getHeight()/DIMENSION;
+            int domX = domCell%DIMENSION, domY = domCell/DIMENSION;
 
-            cam.position.x = Lerper.lerp(cam.position.x, (domPos.x)*cellSize,
+            cam.position.x = Lerper.lerp(cam.position.x, domX*cellSize,
                     5*Gdx.graphics.getDeltaTime());
-            cam.position.y = Lerper.lerp(cam.position.y, Gdx.graphics.getHeight()/2-(domPos.y+0.5f)*cellSize,
+            cam.position.y = Lerper.lerp(cam.position.y, Gdx.graphics.getHeight()/2-(domY+0.5f)*cellSize,
                     5*Gdx.graphics.getDeltaTime());
         } else {
             cam.position.x = Lerper.lerp(cam.position.x, 0, 5*Gdx.graphics.getDeltaTime());
@@ -219,19 +232,18 @@ public class Fifteenth extends ApplicationAdapter {
             case SHUFFLING:
                 if (shufflingTime < SHUFFLE_TIME) {
                     shufflingTime += Gdx.graphics.getDeltaTime();
-                    int toPerformSteps = (int) (shufflingTime * SHUFFLE_STEPS / SHUFFLE_TIME) - shuffledCnt;
-                    Board.Direction[] directions = Board.Direction.values();
-                    for (int i = 0; i < toPerformSteps; i++) {
-                        int randInt = (int) (Math.random() * directions.length);
-                        curBoard.move(directions[randInt]);
+                    int toShow = (int) (shufflingTime * SHUFFLE_BOARDS / SHUFFLE_TIME) - shuffledCnt;
+                    if (toShow > 0) {
+                        curBoard = new Board(generator.next(DIMENSION));
+                        boardView.setBoard(curBoard);
+                        shuffledCnt += toShow;
                     }
-                    shuffledCnt += toPerformSteps;
                 } else {
                     curState = State.IDLE;
                 }
                 break;
             case SOLVING:
-                if (solver != null && !solver.isSolving()) {
+                if (solver != null && (!solver.isSolving() || solver.isStreaming())) {
                     if (solver.performAnimationSteps(curBoard, Gdx.graphics.getDeltaTime()))
                         curState = State.IDLE;
                 }
@@ -242,19 +254,19 @@ public class Fifteenth extends ApplicationAdapter {
         batch.setProjectionMatrix(cam.combined);
         shapeRenderer.setProjectionMatrix(cam.combined);
 
-        curBoard.draw(batch, shapeRenderer, captainFont, cellTextures, Gdx.graphics.getWidth() / 5, 0,
+        boardView.draw(batch, shapeRenderer, captainFont, cellTextures, Gdx.graphics.getWidth() / 5, 0,
                 Gdx.graphics.getWidth() / 2);
 
         if (solver != null && solver.isSolving()) {
             batch.begin();
-            jokerMediumFont.draw(batch, "Loading..", -Gdx.graphics.getWidth() / 2 + 10, Gdx.graphics.getHeight() / 2 - 10);
+            jokerMediumFont.draw(batch, solver.isStreaming()? "Solving.." : "Loading..", -Gdx.graphics.getWidth() / 2 + 10, Gdx.graphics.getHeight() / 2 - 10);
             batch.end();
         }
         if (curState != State.SHUFFLING) {
             if (solver != null && solver.isSolvable() && !solver.isSolving()) {
                 batch.begin();
                 if (curState == State.SOLVING && !solver.animationFinished()) {
-                    captainFont.draw(batch, solver.getAnimationStep() + "/" + solver.solution().length,
+                    captainFont.draw(batch, solver.getAnimationStep() + "/" + solver.moves(),
                             -Gdx.graphics.getWidth() / 2 + 10, 0);
                 }
                 jokerMediumFont.draw(batch, "Found in " +
@@ -0,0 +1,121 @@
+package ua.leskivproduction.fifteenth.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.ArrayDeque;
+
+/**
+ * Flight Recorder events of the solver. Lives in its own source set that only JDK 11+ builds,
+ * {@link SolverMetrics} loads it by name after checking the JVM has jdk.jfr, so the rest
+ * of the model still builds and runs on Java 8.
+ * An event that isn't enabled in the recording costs one check. Iterations and phases are
+ * timed from their start to their end, which are always reported on the same thread.
+ */
+final class JfrEvents implements SearchListener {
+    @Name("ua.leskivproduction.fifteenth.Search")
+    @Label("Search")
+    @Category("Fifteenth")
+    @Description("Finished solver search")
+    static class SearchEvent extends Event {
+        @Label("Dimension")
+        int dimension;
+        @Label("Status")
+        String status;
+        @Label("Moves")
+        int moves;
+        @Label("Expanded Nodes")
+        long expandedNodes;
+        @Label("Generated Nodes")
+        long generatedNodes;
+        @Label("Duplicates")
+        long duplicates;
+        @Label("Peak Open List")
+        int peakOpen;
+        @Label("Search Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long searchTime;
+    }
+
+    @Name("ua.leskivproduction.fifteenth.Iteration")
+    @Label("Search Iteration")
+    @Category("Fifteenth")
+    @Description("Iterative deepening iteration that came out without a solution")
+    static class IterationEvent extends Event {
+        @Label("Bound")
+        int bound;
+        @Label("Expanded Nodes")
+        long expandedNodes;
+    }
+
+    @Name("ua.leskivproduction.fifteenth.Phase")
+    @Label("Solver Phase")
+    @Category("Fifteenth")
+    @Description("Building the heuristic's tables or searching")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    // iteration running on the thread, with its start time
+    private final ThreadLocal<IterationEvent> iteration = new ThreadLocal<>();
+    private final ThreadLocal<ArrayDeque<PhaseEvent>> phases = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void phaseStarted(Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        phases.get().push(event);
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long elapsedNanos) {
+        PhaseEvent event = phases.get().poll();
+        if (event == null || !event.isEnabled())
+            return;
+        event.end();
+        event.phase = phase.name();
+        event.commit();
+    }
+
+    @Override
+    public void iterationStarted(int bound) {
+        IterationEvent event = new IterationEvent();
+        event.begin();
+        iteration.set(event);
+    }
+
+    @Override
+    public void iterationFinished(int bound, SearchStats stats) {
+        IterationEvent event = iteration.get();
+        iteration.remove();
+        if (event == null || !event.isEnabled())
+            return;
+        event.end();
+        event.bound = bound;
+        event.expandedNodes = stats.expandedNodes();
+        event.commit();
+    }
+
+    @Override
+    public void searchFinished(int dimension, SearchResult result, SearchStats stats) {
+        // the last iteration found the solution or was cut short, it isn't reported
+        iteration.remove();
+        SearchEvent event = new SearchEvent();
+        if (!event.isEnabled())
+            return;
+        event.dimension = dimension;
+        event.status = result.status().name();
+        event.moves = result.isSolved()? result.moves().length : -1;
+        event.expandedNodes = stats.expandedNodes();
+        event.generatedNodes = stats.generatedNodes();
+        event.duplicates = stats.duplicates();
+        event.peakOpen = stats.peakOpen();
+        event.searchTime = stats.elapsedNanos();
+        event.commit();
+    }
+}
@@ -0,0 +1,147 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+import ua.leskivproduction.fifteenth.utils.IndexedMinHeap;
+
+/**
+ * A* over packed states kept in a {@link NodeArena}, the open list is an {@link IndexedMinHeap} on f = g + h.
+ * Every state has a single node: a shorter path to a state already generated relinks its node
+ * and lowers its priority in place, and the arena's state index doubles as the closed set.
+ * With a consistent heuristic (manhattan, additive pattern databases) the first time
+ * a state is taken from the queue its path is already the shortest one.
+ * Given a {@link TranspositionTable} the states are tracked there instead, so the index
+ * can't outgrow the table's memory cap; a shorter path then gets a node of its own,
+ * the outdated one is skipped when it comes up, and evicted states may be expanded twice.
+ */
+public class AStarEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Heuristic heuristic;
+    private final TranspositionTable table;
+
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    private NodeArena arena;
+    private PackedView view;
+    private long[] child;
+
+    public AStarEngine() {
+        this(new ManhattanHeuristic());
+    }
+
+    public AStarEngine(Heuristic heuristic) {
+        this(heuristic, null);
+    }
+
+    public AStarEngine(Heuristic heuristic, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.table = table;
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        int dimension = start.dimension();
+        if (table != null && table.dimension() != dimension)
+            throw new IllegalArgumentException("transposition table is for "+table.dimension()+
+                    "x"+table.dimension()+" boards");
+        if (arena == null || arena.dimension != dimension) {
+            arena = new NodeArena(dimension, table == null);
+            view = new PackedView(dimension);
+            child = new long[arena.stride];
+        }
+        arena.clear();
+        open.clear();
+        int unreported = 0;
+        int generated = 0;
+        int duplicates = 0;
+        int peakOpen = 0;
+
+        start.writeWords(child, 0);
+        int root = arena.add(child, 0, start.blankIndex(), -1, null, 0, heuristic.estimate(start));
+        if (table != null) {
+            table.nextGeneration();
+            table.store(child, 0, 0, arena.estimate(root));
+        }
+        open.add(root, NodeArena.priority(arena.estimate(root), 0));
+
+        while (open.size() > 0) {
+            peakOpen = Math.max(peakOpen, open.size());
+            int node = open.removeMin();
+            long[] states = arena.states();
+            int offset = arena.offset(node);
+            if (arena.isClosed(node) || knownDepth(states, offset) < arena.depth(node))
+                continue;
+
+            int estimate = arena.estimate(node);
+            int blank = arena.blank(node);
+            if (estimate == 0 && arena.state(node).isGoal()) {
+                control.record(unreported);
+                control.count(generated, duplicates);
+                control.reportOpen(peakOpen);
+                return new SearchResult(arena.path(node), control.expandedNodes());
+            }
+            arena.close(node);
+            if (++unreported == SearchControl.CHECK_INTERVAL) {
+                unreported = 0;
+                control.count(generated, duplicates);
+                control.reportOpen(peakOpen);
+                generated = duplicates = 0;
+                // nothing cheaper than the node taken last is left in the queue
+                control.reportBound(arena.depth(node)+estimate);
+                if (!control.proceed(SearchControl.CHECK_INTERVAL))
+                    return SearchResult.stopped(control);
+            }
+
+            Direction lastDir = arena.dir(node);
+            int depth = arena.depth(node)+1;
+            for (Direction dir : DIRECTIONS) {
+                if (lastDir != null && dir == lastDir.opposite())
+                    continue;
+                int source = PackedBoard.sourceCell(blank, dimension, dir);
+                if (source < 0)
+                    continue;
+
+                PackedBoard.slide(dimension, states, offset, blank, source, child, 0);
+                generated++;
+                if (knownDepth(child, 0) <= depth) {
+                    duplicates++;
+                    continue;
+                }
+
+                int tile = PackedBoard.tileAt(dimension, child, 0, blank);
+                int childEstimate = heuristic.update(estimate, view.point(child, 0, source), tile, source, blank);
+                int id = table == null? arena.find(child, 0) : -1;
+                if (id == -1) {
+                    id = arena.add(child, 0, source, node, dir, depth, childEstimate);
+                } else {
+                    // only an inconsistent heuristic can shorten the path of an expanded state
+                    arena.relink(id, node, dir, depth);
+                    arena.reopen(id);
+                }
+                if (table != null)
+                    table.store(child, 0, depth, childEstimate);
+                open.decreaseKey(id, NodeArena.priority(depth+childEstimate, depth));
+
+                // the arena may have grown
+                states = arena.states();
+            }
+        }
+        control.record(unreported);
+        control.count(generated, duplicates);
+        control.reportOpen(peakOpen);
+        return new SearchResult(null, control.expandedNodes());
+    }
+
+    /**
+     * @return smallest g the state was generated with, Integer.MAX_VALUE if it wasn't seen or was evicted
+     */
+    private int knownDepth(long[] src, int offset) {
+        if (table != null) {
+            int slot = table.find(src, offset);
+            return slot == -1? Integer.MAX_VALUE : table.depth(slot);
+        }
+        int existing = arena.find(src, offset);
+        return existing == -1? Integer.MAX_VALUE : arena.depth(existing);
+    }
+}
@@ -0,0 +1,216 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+import ua.leskivproduction.fifteenth.utils.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Anytime Repairing A* (Likhachev, Gordon, Thrun). Runs weighted A* searches with
+ * f = g + (1+ε)h and a decreasing ε, every one of them reusing the nodes of the previous:
+ * only nodes that got a cheaper path while already expanded are looked at again.
+ * Every state has a single node whose priority is lowered in the {@link IndexedMinHeap}
+ * when a cheaper path turns up, so the open list holds no outdated entries.
+ * The first solution comes quickly and is at most (1+ε) times longer than the optimum,
+ * later ones are better. When the budget runs out the best solution so far is returned
+ * together with the lower bound proven for it, so moves().length / lowerBound() is the
+ * actual suboptimality.
+ */
+public class AraStarEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // ε is kept in fixed point, so queue priorities stay integral; it is rounded down,
+    // searching with a bigger weight than asked for would break the (1+ε) guarantee
+    private static final int WEIGHT_SCALE = 16;
+
+    private final Heuristic heuristic;
+    private final double initialEpsilon;
+    private final double step;
+    private final double finalEpsilon;
+
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    private NodeArena arena;
+    private PackedView view;
+    private long[] child;
+    private int[] inconsistent = new int[64];
+    private int inconsistentCount;
+
+    /**
+     * Searches down to ε = 0, that is until the solution is proven optimal or the budget runs out.
+     * @param initialEpsilon suboptimality of the first solution
+     * @param step ε is lowered by this after every solution
+     */
+    public AraStarEngine(Heuristic heuristic, double initialEpsilon, double step) {
+        this(heuristic, initialEpsilon, step, 0);
+    }
+
+    protected AraStarEngine(Heuristic heuristic, double initialEpsilon, double step, double finalEpsilon) {
+        if (finalEpsilon < 0 || initialEpsilon < finalEpsilon || step <= 0)
+            throw new IllegalArgumentException("bad epsilon schedule "+initialEpsilon+" by "+step+
+                    " down to "+finalEpsilon);
+        this.heuristic = heuristic;
+        this.initialEpsilon = initialEpsilon;
+        this.step = step;
+        this.finalEpsilon = finalEpsilon;
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        int dimension = start.dimension();
+        if (arena == null || arena.dimension != dimension) {
+            arena = new NodeArena(dimension);
+            view = new PackedView(dimension);
+            child = new long[arena.stride];
+        }
+        arena.clear();
+        open.clear();
+        inconsistentCount = 0;
+
+        start.writeWords(child, 0);
+        int root = arena.add(child, 0, start.blankIndex(), -1, null, 0, heuristic.estimate(start));
+        if (start.isGoal())
+            return new SearchResult(new Direction[0], 0);
+
+        int weight = weight(initialEpsilon);
+        open.add(root, NodeArena.priority(weight*arena.estimate(root), 0));
+        int best = Integer.MAX_VALUE;
+        int goal = -1;
+        int lowerBound = arena.estimate(root);
+        control.reportBound(lowerBound);
+        int unreported = 0;
+        int generated = 0;
+        int duplicates = 0;
+        int peakOpen = 0;
+
+        for (double epsilon = initialEpsilon; ; ) {
+            while (open.size() > 0 && (goal == -1 ||
+                    NodeArena.f(open.priorityOf(open.getMin())) < best*WEIGHT_SCALE)) {
+                peakOpen = Math.max(peakOpen, open.size());
+                int node = open.removeMin();
+                long[] states = arena.states();
+                int offset = arena.offset(node);
+                arena.close(node);
+
+                if (++unreported == SearchControl.CHECK_INTERVAL) {
+                    unreported = 0;
+                    control.count(generated, duplicates);
+                    control.reportOpen(peakOpen);
+                    generated = duplicates = 0;
+                    if (!control.proceed(SearchControl.CHECK_INTERVAL))
+                        return stopped(control, goal, lowerBound);
+                }
+
+                int estimate = arena.estimate(node);
+                int blank = arena.blank(node);
+                Direction lastDir = arena.dir(node);
+                int depth = arena.depth(node)+1;
+                for (Direction dir : DIRECTIONS) {
+                    if (lastDir != null && dir == lastDir.opposite())
+                        continue;
+                    int source = PackedBoard.sourceCell(blank, dimension, dir);
+                    if (source < 0)
+                        continue;
+
+                    PackedBoard.slide(dimension, states, offset, blank, source, child, 0);
+                    generated++;
+                    int existing = arena.find(child, 0);
+                    if (existing != -1 && arena.depth(existing) <= depth) {
+                        duplicates++;
+                        continue;
+                    }
+
+                    int tile = PackedBoard.tileAt(dimension, child, 0, blank);
+                    int childEstimate = heuristic.update(estimate, view.point(child, 0, source), tile, source, blank);
+                    // can't lead to anything shorter than the solution at hand
+                    if (depth+childEstimate >= best)
+                        continue;
+
+                    int id = existing;
+                    if (id == -1) {
+                        id = arena.add(child, 0, source, node, dir, depth, childEstimate);
+                        states = arena.states();
+                    } else {
+                        arena.relink(id, node, dir, depth);
+                    }
+                    if (childEstimate == 0 && arena.state(id).isGoal()) {
+                        best = depth;
+                        goal = id;
+                    } else if (arena.isClosed(id)) {
+                        addInconsistent(id);
+                    } else {
+                        open.decreaseKey(id, priority(depth, childEstimate, weight));
+                    }
+                }
+            }
+
+            control.count(generated, duplicates);
+            control.reportOpen(peakOpen);
+            generated = duplicates = 0;
+            if (goal == -1 && open.size() == 0 && inconsistentCount == 0) {
+                control.record(unreported);
+                return new SearchResult(null, control.expandedNodes());
+            }
+
+            // start the next search from the open and inconsistent nodes, they also bound the optimum
+            int frontier = collectFrontier();
+            int minF = Integer.MAX_VALUE;
+            for (int i = 0; i < frontier; i++)
+                minF = Math.min(minF, arena.depth(inconsistent[i]) + arena.estimate(inconsistent[i]));
+            lowerBound = Math.max(lowerBound, Math.min(best, minF));
+            control.reportBound(lowerBound);
+
+            if (goal != -1 && (epsilon <= finalEpsilon || lowerBound >= best)) {
+                control.record(unreported);
+                return new SearchResult(SearchResult.Status.SOLVED, arena.path(goal), control.expandedNodes(),
+                        lowerBound);
+            }
+
+            epsilon = Math.max(finalEpsilon, Math.min(epsilon-step, (double) best/lowerBound - 1));
+            weight = weight(epsilon);
+            arena.reopenAll();
+            for (int i = 0; i < frontier; i++) {
+                int node = inconsistent[i];
+                open.decreaseKey(node, priority(arena.depth(node), arena.estimate(node), weight));
+            }
+            inconsistentCount = 0;
+        }
+    }
+
+    private static long priority(int depth, int estimate, int weight) {
+        return NodeArena.priority(depth*WEIGHT_SCALE + weight*estimate, depth);
+    }
+
+    private static int weight(double epsilon) {
+        return (int) Math.floor((1+epsilon)*WEIGHT_SCALE);
+    }
+
+    /**
+     * @return ε the searches really use for the given one, a multiple of 1/16 no bigger than it
+     */
+    public static double effectiveEpsilon(double epsilon) {
+        return (double) weight(epsilon)/WEIGHT_SCALE - 1;
+    }
+
+    private void addInconsistent(int node) {
+        if (inconsistentCount == inconsistent.length)
+            inconsistent = Arrays.copyOf(inconsistent, inconsistentCount*2);
+        inconsistent[inconsistentCount++] = node;
+    }
+
+    /**
+     * Moves the open nodes next to the inconsistent ones and empties the queue.
+     * A node improved more than once while expanded is listed as often, the queue takes it once.
+     * @return amount of frontier nodes at the start of the inconsistent array
+     */
+    private int collectFrontier() {
+        while (open.size() > 0)
+            addInconsistent(open.removeMin());
+        return inconsistentCount;
+    }
+
+    private SearchResult stopped(SearchControl control, int goal, int lowerBound) {
+        if (goal == -1)
+            return SearchResult.stopped(control);
+        return new SearchResult(control.stopReason(), arena.path(goal), control.expandedNodes(), lowerBound);
+    }
+}
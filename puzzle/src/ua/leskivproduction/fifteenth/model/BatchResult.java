@@ -0,0 +1,78 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+public class BatchResult {
+    private final long index;
+    private final PackedBoard board;
+    private final SearchResult result;
+    private final Throwable error;
+    private final long nanos;
+
+    BatchResult(long index, PackedBoard board, SearchResult result, long nanos) {
+        this(index, board, result, null, nanos);
+    }
+
+    BatchResult(long index, PackedBoard board, Throwable error, long nanos) {
+        this(index, board, null, error, nanos);
+    }
+
+    private BatchResult(long index, PackedBoard board, SearchResult result, Throwable error, long nanos) {
+        this.index = index;
+        this.board = board;
+        this.result = result;
+        this.error = error;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return position of the board in the input
+     */
+    public long index() {
+        return index;
+    }
+
+    public PackedBoard board() {
+        return board;
+    }
+
+    public boolean isSolvable() {
+        return result == null || result.status() != SearchResult.Status.UNSOLVABLE;
+    }
+
+    /**
+     * @return null if the engine failed on the board
+     */
+    public SearchResult.Status status() {
+        return result != null? result.status() : null;
+    }
+
+    /**
+     * @return what the engine threw, null if the search ended normally
+     */
+    public Throwable error() {
+        return error;
+    }
+
+    /**
+     * @return solution, null if the board can't be solved, the budget ran out or the engine failed
+     */
+    public Direction[] moves() {
+        return result != null? result.moves() : null;
+    }
+
+    public long expandedNodes() {
+        return result != null? result.expandedNodes() : 0;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        Direction[] moves = moves();
+        return index + "\t" + (moves == null? -1 : moves.length) + "\t" + expandedNodes() + "\t" +
+                String.format("%.3f", nanos/1e6) + "\t" + (error == null? result.status() : "ERROR " + error);
+    }
+}
@@ -0,0 +1,232 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Headless solving of many boards on a bounded pool of worker threads.
+ * Every worker keeps its own engine per board size, so arenas and buffers
+ * are reused from one board to the next. Input is read only as fast as
+ * workers take it, and results are reported in order of completion.
+ *
+ * Usage: {@code BatchSolver file [--threads n] [--time ms] [--nodes n]}, one board per line in the
+ * {@link Board#toString()} numbering (0 is the blank), lines starting with # are skipped.
+ * Time and node limits apply to every board separately, without them every board gets
+ * {@link Solver#defaultBudget(int)} for its size. A board the engine fails on is reported
+ * with its error and the batch goes on, a line that isn't a board ends it with the line's number.
+ */
+public class BatchSolver {
+    private static final Job POISON = new Job(-1, null);
+
+    public interface Listener {
+        /**
+         * Called from worker threads, but never concurrently.
+         */
+        void solved(BatchResult result);
+    }
+
+    private static class Job {
+        final long index;
+        final PackedBoard board;
+
+        Job(long index, PackedBoard board) {
+            this.index = index;
+            this.board = board;
+        }
+    }
+
+    private final int threads;
+    private final IntFunction<SolverEngine> engines;
+    private final IntFunction<SearchBudget> budgets;
+
+    public BatchSolver(int threads) {
+        this(threads, Solver::defaultEngine);
+    }
+
+    public BatchSolver(int threads, IntFunction<SolverEngine> engines) {
+        this(threads, engines, Solver::defaultBudget);
+    }
+
+    /**
+     * @param budget limits the search of every single board
+     */
+    public BatchSolver(int threads, IntFunction<SolverEngine> engines, SearchBudget budget) {
+        this(threads, engines, dimension -> budget);
+    }
+
+    /**
+     * @param engines creates an engine for the given board dimension, called once per worker and size
+     * @param budgets gives the limits for the search of every single board of the given dimension
+     */
+    public BatchSolver(int threads, IntFunction<SolverEngine> engines, IntFunction<SearchBudget> budgets) {
+        if (threads < 1)
+            throw new IllegalArgumentException("at least one thread is needed");
+        this.threads = threads;
+        this.engines = engines;
+        this.budgets = budgets;
+    }
+
+    /**
+     * Blocks until every board is solved. If the boards themselves fail, the ones taken
+     * before are still solved and reported, then the failure is passed on.
+     */
+    public void solve(Iterator<PackedBoard> boards, Listener listener) throws InterruptedException {
+        BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(threads*4);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> work(jobs, listener), "batch-solver-"+i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        long index = 0;
+        try {
+            while (boards.hasNext())
+                jobs.put(new Job(index++, boards.next()));
+        } finally {
+            // workers wait for these no matter how the input ended
+            for (int i = 0; i < threads; i++)
+                jobs.put(POISON);
+            for (Thread worker : workers)
+                worker.join();
+        }
+    }
+
+    private void work(BlockingQueue<Job> jobs, Listener listener) {
+        SolverEngine[] bySize = new SolverEngine[0];
+        try {
+            for (Job job = jobs.take(); job != POISON; job = jobs.take()) {
+                int dimension = job.board.dimension();
+                if (dimension >= bySize.length)
+                    bySize = Arrays.copyOf(bySize, dimension+1);
+
+                long time = System.nanoTime();
+                BatchResult result;
+                try {
+                    if (bySize[dimension] == null)
+                        bySize[dimension] = engines.apply(dimension);
+                    SearchResult found = job.board.isSolvable()?
+                            SolverMetrics.get().solve(bySize[dimension], job.board,
+                                    new SearchControl(budgets.apply(dimension), SolverMetrics.get())) :
+                            new SearchResult(SearchResult.Status.UNSOLVABLE, null, 0, 0);
+                    result = new BatchResult(job.index, job.board, found, System.nanoTime()-time);
+                } catch (RuntimeException | Error e) {
+                    // the engine may be left in any state, the next board of this size gets a new one
+                    bySize[dimension] = null;
+                    result = new BatchResult(job.index, job.board, e, System.nanoTime()-time);
+                }
+
+                synchronized (listener) {
+                    listener.solved(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param line n*n numbers, 0 for the blank and 1..n*n-1 for tiles
+     */
+    public static PackedBoard parse(String line) {
+        String[] tokens = line.trim().split("[\\s,]+");
+        int dimension = (int) Math.round(Math.sqrt(tokens.length));
+        if (dimension*dimension != tokens.length)
+            throw new IllegalArgumentException("not a square board: "+line);
+
+        int[] cells = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++)
+            cells[i] = Integer.parseInt(tokens[i])-1;
+        return PackedBoard.of(dimension, cells);
+    }
+
+    /**
+     * Boards of the input as {@link #main} reads it, one per line, skipping empty lines and
+     * those starting with #. A line that isn't a board fails with its number in the message.
+     */
+    public static Iterator<PackedBoard> boards(BufferedReader reader) {
+        return new Iterator<PackedBoard>() {
+            int lineNumber;
+            PackedBoard next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    String line;
+                    try {
+                        line = reader.readLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (line == null)
+                        return false;
+                    lineNumber++;
+                    if (line.trim().isEmpty() || line.startsWith("#"))
+                        continue;
+                    try {
+                        next = parse(line);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("line "+lineNumber+": "+e.getMessage(), e);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public PackedBoard next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                PackedBoard board = next;
+                next = null;
+                return board;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: BatchSolver file [--threads n] [--time ms] [--nodes n]");
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        // null until a limit is given, then it replaces the default budgets
+        SearchBudget budget = null;
+        for (int i = 1; i+1 < args.length; i += 2) {
+            SearchBudget given = budget != null? budget : SearchBudget.UNLIMITED;
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[i+1]);
+                    break;
+                case "--time":
+                    budget = given.withTimeLimit(Long.parseLong(args[i+1]), TimeUnit.MILLISECONDS);
+                    break;
+                case "--nodes":
+                    budget = given.withNodeLimit(Long.parseLong(args[i+1]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option "+args[i]);
+            }
+        }
+
+        System.out.println("index\tmoves\texpanded\tms\tstatus");
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            BatchSolver solver = budget != null?
+                    new BatchSolver(threads, Solver::defaultEngine, budget) : new BatchSolver(threads);
+            solver.solve(boards(reader), System.out::println);
+        } catch (IllegalArgumentException e) {
+            System.err.println(args[0]+", "+e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+import ua.leskivproduction.fifteenth.utils.BucketQueue;
+
+/**
+ * Bidirectional MM search (Holte, Felner, Sharon, Sturtevant), meeting in the middle.
+ * One A*-like search goes forward from the start, the other backward from the goal,
+ * nodes are ordered by max(g + h, 2g), so neither side goes past half of the solution
+ * before the frontiers meet. Each side keeps its states in its own {@link NodeArena}.
+ * The search stops once the shortest path found through a common state is no longer
+ * than the smallest priority left, which makes it optimal for consistent heuristics.
+ * The backward side estimates the distance to the start by manhattan distance,
+ * since the heuristic only knows the way to the goal.
+ */
+public class BidirectionalEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Heuristic heuristic;
+
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private PackedView view;
+    private long[] child;
+    // cells of every tile in the start, the backward side's goal
+    private int[] targets;
+
+    private int best;
+    private int meetForward, meetBackward;
+    // counters of the running search, handed to the control in batches
+    private int generated, duplicates, peakOpen;
+
+    public BidirectionalEngine() {
+        this(new ManhattanHeuristic());
+    }
+
+    public BidirectionalEngine(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    private static class Side {
+        final BucketQueue open = new BucketQueue();
+        NodeArena arena;
+        boolean isForward;
+
+        int priority(int node) {
+            int depth = arena.depth(node);
+            return Math.max(depth + arena.estimate(node), 2*depth);
+        }
+
+        int minPriority() {
+            return open.size() == 0? Integer.MAX_VALUE : open.minPriority();
+        }
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        if (start.isGoal())
+            return new SearchResult(new Direction[0], 0);
+
+        int dimension = start.dimension();
+        if (view == null || view.dimension() != dimension) {
+            forward.arena = new NodeArena(dimension);
+            backward.arena = new NodeArena(dimension);
+            forward.isForward = true;
+            view = new PackedView(dimension);
+            child = new long[forward.arena.stride];
+            targets = new int[dimension*dimension];
+        }
+        for (int cell = 0; cell < dimension*dimension; cell++) {
+            int tile = start.tileAt(cell);
+            if (tile != -1)
+                targets[tile] = cell;
+        }
+        PackedBoard goal = PackedBoard.goal(dimension);
+
+        best = Integer.MAX_VALUE;
+        meetForward = meetBackward = -1;
+        generated = duplicates = 0;
+        peakOpen = 0;
+        int unreported = 0;
+        init(forward, start, heuristic.estimate(start));
+        init(backward, goal, distanceToStart(goal));
+
+        while (true) {
+            int minPriority = Math.min(forward.minPriority(), backward.minPriority());
+            if (best <= minPriority)
+                break;
+            if (minPriority == Integer.MAX_VALUE) {
+                control.record(unreported);
+                flushCounters(control);
+                return new SearchResult(null, control.expandedNodes());
+            }
+
+            if (++unreported == SearchControl.CHECK_INTERVAL) {
+                unreported = 0;
+                flushCounters(control);
+                // no path through the states still open is shorter than the smallest priority
+                control.reportBound(minPriority);
+                if (!control.proceed(SearchControl.CHECK_INTERVAL))
+                    return SearchResult.stopped(control);
+            }
+
+            if (forward.minPriority() <= backward.minPriority())
+                expand(forward, backward);
+            else
+                expand(backward, forward);
+        }
+        control.record(unreported);
+        flushCounters(control);
+        return new SearchResult(path(), control.expandedNodes());
+    }
+
+    private void flushCounters(SearchControl control) {
+        control.count(generated, duplicates);
+        control.reportOpen(peakOpen);
+        generated = duplicates = 0;
+    }
+
+    private void init(Side side, PackedBoard root, int estimate) {
+        side.arena.clear();
+        side.open.clear();
+        root.writeWords(child, 0);
+        int node = side.arena.add(child, 0, root.blankIndex(), -1, null, 0, estimate);
+        side.open.add(node, side.priority(node), 0);
+    }
+
+    private void expand(Side side, Side other) {
+        NodeArena arena = side.arena;
+        int dimension = arena.dimension;
+        peakOpen = Math.max(peakOpen, forward.open.size() + backward.open.size());
+        int node = side.open.removeMin();
+        long[] states = arena.states();
+        int offset = arena.offset(node);
+        if (arena.isClosed(node) || arena.find(states, offset) != node)
+            return;
+        arena.close(node);
+
+        int estimate = arena.estimate(node);
+        int blank = arena.blank(node);
+        Direction lastDir = arena.dir(node);
+        int depth = arena.depth(node)+1;
+        for (Direction dir : DIRECTIONS) {
+            if (lastDir != null && dir == lastDir.opposite())
+                continue;
+            int source = PackedBoard.sourceCell(blank, dimension, dir);
+            if (source < 0)
+                continue;
+
+            PackedBoard.slide(dimension, states, offset, blank, source, child, 0);
+            generated++;
+            int existing = arena.find(child, 0);
+            if (existing != -1 && arena.depth(existing) <= depth) {
+                duplicates++;
+                continue;
+            }
+
+            int tile = PackedBoard.tileAt(dimension, child, 0, blank);
+            int childEstimate = side.isForward?
+                    heuristic.update(estimate, view.point(child, 0, source), tile, source, blank) :
+                    estimate + manhattanDelta(dimension, tile, source, blank);
+            int id = arena.add(child, 0, source, node, dir, depth, childEstimate);
+            side.open.add(id, side.priority(id), depth);
+            states = arena.states();
+
+            int met = other.arena.find(child, 0);
+            if (met != -1 && depth + other.arena.depth(met) < best) {
+                best = depth + other.arena.depth(met);
+                meetForward = side.isForward? id : met;
+                meetBackward = side.isForward? met : id;
+            }
+        }
+    }
+
+    /**
+     * Moves to the meeting state, then the backward side's moves undone in reverse order.
+     */
+    private Direction[] path() {
+        Direction[] head = forward.arena.path(meetForward);
+        Direction[] tail = backward.arena.path(meetBackward);
+        Direction[] moves = new Direction[head.length + tail.length];
+        System.arraycopy(head, 0, moves, 0, head.length);
+        for (int i = 0; i < tail.length; i++)
+            moves[head.length + i] = tail[tail.length-1-i].opposite();
+        return moves;
+    }
+
+    private int distanceToStart(PackedBoard state) {
+        int dimension = state.dimension();
+        int distance = 0;
+        for (int cell = 0; cell < dimension*dimension; cell++) {
+            int tile = state.tileAt(cell);
+            if (tile != -1)
+                distance += Math.abs(targets[tile]%dimension - cell%dimension) +
+                        Math.abs(targets[tile]/dimension - cell/dimension);
+        }
+        return distance;
+    }
+
+    private int manhattanDelta(int dimension, int tile, int from, int to) {
+        int target = targets[tile];
+        return Math.abs(target%dimension - to%dimension) + Math.abs(target/dimension - to/dimension)
+                - Math.abs(target%dimension - from%dimension) - Math.abs(target/dimension - from/dimension);
+    }
+}
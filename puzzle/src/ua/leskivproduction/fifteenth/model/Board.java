@@ -0,0 +1,416 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.util.Iterator;
+
+public class Board implements Comparable<Board>, TileGrid {
+    private int[][] blocks;
+    private final int amountOfCells;
+    private final int dimension;
+
+    private final int searchNodeNum;
+
+    //blank position, raw manhattan distance and zobrist hash, kept up to date by every move
+    private int blankX, blankY;
+    private int distance;
+    private long hash;
+
+    private MoveListener listener;
+
+    private final static Direction[] DIRECTIONS = Direction.values();
+
+    public enum Direction {UP, DOWN, LEFT, RIGHT;
+        public Direction opposite() {
+            switch (this) {
+                case DOWN:
+                    return UP;
+                case UP:
+                    return DOWN;
+                case LEFT:
+                    return RIGHT;
+                case RIGHT:
+                    return LEFT;
+            }
+            return null;
+        }
+    }
+
+    public Board(int dimension)   {
+        this.dimension = dimension;
+        this.amountOfCells = dimension*dimension-1;
+        this.blocks = new int[dimension][dimension];
+
+        this.searchNodeNum = 0;
+
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                int cellNum = (i* dimension + j);
+                blocks[i][j] = cellNum<amountOfCells? cellNum: -1;
+                hash ^= Zobrist.key(dimension, cellNum, blocks[i][j]);
+            }
+        }
+        blankX = blankY = dimension-1;
+    }
+
+    public Board(PackedBoard state) {
+        this.dimension = state.dimension();
+        this.amountOfCells = dimension*dimension-1;
+        this.blocks = new int[dimension][dimension];
+
+        this.searchNodeNum = 0;
+
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                blocks[i][j] = state.tileAt(i*dimension + j);
+            }
+        }
+        blankX = state.blankIndex()%dimension;
+        blankY = state.blankIndex()/dimension;
+        distance = state.manhattan();
+        hash = Zobrist.hash(state);
+    }
+
+    private Board(Board toCopy) {
+        this.amountOfCells = toCopy.amountOfCells;
+        this.dimension = toCopy.dimension;
+        this.blocks = new int[dimension][dimension];
+
+        this.searchNodeNum  = toCopy.searchNodeNum+1;
+
+        for (int i = 0; i < dimension; i++) {
+            System.arraycopy(toCopy.blocks[i], 0, this.blocks[i], 0, dimension);
+        }
+        this.blankX = toCopy.blankX;
+        this.blankY = toCopy.blankY;
+        this.distance = toCopy.distance;
+        this.hash = toCopy.hash;
+    }
+
+    /**
+     * Full rescan of blank position, manhattan distance and hash.
+     * Only needed after cells were placed by hand.
+     */
+    private void recalcState() {
+        distance = 0;
+        hash = 0;
+        blankX = blankY = -1;
+        for (int i = dimension-1; i >= 0; i--) {
+            for (int j = dimension-1; j >= 0; j--) {
+                hash ^= Zobrist.key(dimension, i*dimension + j, blocks[i][j]);
+                if (this.blocks[i][j] != -1) {
+                    int goalX = this.blocks[i][j]%dimension;
+                    int goalY = this.blocks[i][j]/dimension;
+                    distance += Math.abs(goalX-j) + Math.abs(goalY-i);
+                } else {
+                    blankX = j;
+                    blankY = i;
+                }
+            }
+        }
+    }
+
+    public PackedBoard pack() {
+        int[] cells = new int[dimension*dimension];
+        for (int i = 0; i < dimension; i++)
+            System.arraycopy(blocks[i], 0, cells, i*dimension, dimension);
+        return PackedBoard.of(dimension, cells);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return row-major cell of the blank, -1 if there's none
+     */
+    @Override
+    public int blankIndex() {
+        return blankX < 0? -1 : blankY*dimension + blankX;
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        return blocks[cell/dimension][cell%dimension];
+    }
+
+    /**
+     * @return 64-bit {@link Zobrist} hash, equal boards have equal hashes
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    // кількість блоків не на своєму місці
+    public int hamming() {
+        int goalNum = 0;
+        int misplacedCnt = 0;
+        for (int cell : cellIterator()) {
+            if (goalNum >= amountOfCells) {
+                if (cell != -1)
+                    misplacedCnt++;
+            } else if (cell != goalNum++)
+                misplacedCnt++;
+        }
+        return misplacedCnt + searchNodeNum;
+    }
+
+    // сума Манхатенських відстаней між блоками і цільовим станом
+    public int manhattan() {
+        return ((dimension<4? 1 : dimension)*distance + searchNodeNum);
+//        return *distance + searchNodeNum;
+    }
+
+    // чи є ця дошка цільовим станом
+    public boolean isGoal() {
+        int goalNum = 0;
+        for (int cell : cellIterator()) {
+            if (goalNum >= amountOfCells)
+                break;
+            if (cell != goalNum++)
+                return false;
+        }
+        return true;
+    }
+
+    public boolean isValid() {
+        int sum = 0;
+        for (int c : cellIterator()) {
+            sum += c;
+        }
+        return sum == (dimension*dimension-2)*(dimension*dimension-1)/2-1;
+    }
+
+    /**
+     * O(n) parity check, see {@link Solvability}. Boards with missing or repeated tiles aren't solvable.
+     */
+    public boolean solvable() {
+        return Solvability.isSolvable(this);
+    }
+
+    public boolean setCell(int cellNum, int x, int y) {
+        if (x < 0 || y < 0 || x >= dimension || y >= dimension)
+            return false;
+        if (blocks[y][x] != -1)
+            return false;
+        blocks[y][x] = cellNum;
+        recalcState();
+        return true;
+    }
+
+    /**
+     * @return row-major cell holding the tile, -1 if it isn't on the board
+     */
+    public int cellOf(int tile) {
+        for (int cell = 0; cell < dimension*dimension; cell++) {
+            if (blocks[cell/dimension][cell%dimension] == tile)
+                return cell;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                blocks[i][j] = -1;
+            }
+        }
+        recalcState();
+    }
+
+    @Override
+    public int compareTo(Board o) {
+        return Integer.compare(this.manhattan(), o.manhattan());
+    }
+
+    public boolean equals(Object y) {
+        if (y == null || y.getClass() != this.getClass())
+            return false;
+
+        Board another = (Board)y;
+        if (this.hash != another.hash || this.dimension != another.dimension)
+            return false;
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                if (this.blocks[i][j] !=
+                        another.blocks[i][j])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    public interface NeighborVisitor {
+        /**
+         * @param board the board itself with dir applied, it must not be changed or kept
+         * @return false to stop visiting
+         */
+        boolean visit(Board board, Direction dir);
+    }
+
+    /**
+     * Applies every legal move in place except the one undoing parentMove,
+     * hands the board to the visitor and undoes the move. Nothing is allocated.
+     * @param parentMove move that led to this board, null if none
+     * @return false if the visitor stopped early
+     */
+    public boolean forEachNeighbor(Direction parentMove, NeighborVisitor visitor) {
+        Direction skipped = parentMove == null? null : parentMove.opposite();
+        for (Direction dir : DIRECTIONS) {
+            if (dir == skipped || slide(dir) == -1)
+                continue;
+            boolean proceed = visitor.visit(this, dir);
+            slide(dir.opposite());
+            if (!proceed)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies of the board after every move, illegal moves give null.
+     * Every call allocates, searches should use {@link #forEachNeighbor} instead.
+     */
+    public Iterable<Board> neighbors() {
+        return () -> new Iterator<Board>() {
+            int step;
+
+            @Override
+            public boolean hasNext() {
+                return step < DIRECTIONS.length;
+            }
+
+            @Override
+            public Board next() {
+                Direction dir = DIRECTIONS[step++];
+                Board res = new Board(Board.this);
+                if (res.move(dir))
+                    return res;
+                return null;
+            }
+        };
+    }
+
+    public interface MoveListener {
+        void moved(int tile, Direction dir);
+    }
+
+    /**
+     * Gets told about every {@link #move}, moves tried by {@link #forEachNeighbor} aren't reported.
+     * Copies of the board don't inherit it.
+     */
+    public void setMoveListener(MoveListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Moves cells near the open one in specified direction.
+     * @return true if move is valid and false otherwise
+     */
+    public boolean move(Direction dir) {
+        int tile = slide(dir);
+        if (tile == -1)
+            return false;
+
+        if (listener != null)
+            listener.moved(tile, dir);
+        return true;
+    }
+
+    /**
+     * Bare move: cells, blank, distance and hash, listener isn't told.
+     * @return moved tile, -1 if the move is illegal
+     */
+    private int slide(Direction dir) {
+        if (blankX < 0)
+            return -1;
+
+        int sourceX=blankX, sourceY=blankY;
+        switch (dir) {
+            case UP:
+                sourceY++;
+                break;
+            case DOWN:
+                sourceY--;
+                break;
+            case LEFT:
+                sourceX++;
+                break;
+            case RIGHT:
+                sourceX--;
+                break;
+        }
+        if (sourceX < 0 || sourceY < 0 || sourceX >= dimension || sourceY >= dimension)
+            return -1;
+
+        int tile = blocks[sourceY][sourceX];
+        int source = sourceY*dimension + sourceX, blank = blankY*dimension + blankX;
+        distance += PackedBoard.manhattanDelta(dimension, tile, source, blank);
+        hash ^= Zobrist.delta(dimension, tile, source, blank);
+
+        blocks[blankY][blankX] = tile;
+        blocks[sourceY][sourceX] = -1;
+        blankX = sourceX;
+        blankY = sourceY;
+        return tile;
+    }
+
+    /**
+     * @return move turning this board into another, null if it takes more than one
+     */
+    public Direction directionTo(Board another) {
+        Direction[] found = new Direction[1];
+        forEachNeighbor(null, (board, dir) -> {
+            if (board.equals(another))
+                found[0] = dir;
+            return found[0] == null;
+        });
+        return found[0];
+    }
+
+    public boolean moveTo(Board another) {
+        Direction dir = directionTo(another);
+        return dir != null && move(dir);
+    }
+
+    private Iterable<Integer> cellIterator() {
+        return () ->  new Iterator<Integer>() {
+            private int counter = 0;
+
+            @Override
+            public boolean hasNext() {
+                return counter < dimension*dimension;
+            }
+
+            @Override
+            public Integer next() {
+                counter++;
+                return blocks[(counter-1)/dimension][(counter-1)%dimension];
+            }
+        };
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < dimension; i++) {
+            builder.append("(");
+            for (int j = 0; j < dimension; j++) {
+                builder.append(blocks[i][j]+1);
+                for (int k = 0; k < 6-(""+(blocks[i][j]+1)).length(); k++)
+                    builder.append(" ");
+            }
+            builder.append(")\n");
+        }
+        return builder.toString();
+    }
+
+}
+
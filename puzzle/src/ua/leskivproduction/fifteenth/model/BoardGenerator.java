@@ -0,0 +1,156 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Random solvable boards, the same seed always gives the same sequence.
+ * A board is a Fisher-Yates shuffle of the goal; the swaps it took tell the permutation parity,
+ * and a shuffle that came out unsolvable gets two tiles swapped back. That pairs every
+ * unsolvable board with exactly one solvable one, so solvable boards stay uniform.
+ * Not thread-safe, {@link #split()} gives an independent generator for another thread.
+ */
+public class BoardGenerator {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int UNIFORM_ATTEMPTS = 64;
+    private static final int WALK_ATTEMPTS = 10_000;
+
+    private final SplittableRandom random;
+    private int[] cells = new int[0];
+
+    public BoardGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private BoardGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public BoardGenerator split() {
+        return new BoardGenerator(random.split());
+    }
+
+    /**
+     * @return uniformly random solvable board
+     */
+    public PackedBoard next(int dimension) {
+        shuffle(dimension);
+        return PackedBoard.of(dimension, cells);
+    }
+
+    /**
+     * Endless sequential stream of {@link #next(int)} boards.
+     */
+    public Stream<PackedBoard> boards(int dimension) {
+        return Stream.generate(() -> next(dimension));
+    }
+
+    /**
+     * Writes count random boards one after another as {@link PackedBoard#writeWords} would,
+     * without making a single object.
+     */
+    public void fill(int dimension, long[] dst, int offset, int count) {
+        int stride = PackedBoard.wordCount(dimension);
+        int bits = PackedBoard.bitsPerCell(dimension);
+        int perWord = 64/bits;
+        for (int i = 0; i < count; i++, offset += stride) {
+            shuffle(dimension);
+            for (int word = 0; word < stride; word++)
+                dst[offset+word] = 0;
+            for (int cell = 0; cell < cells.length; cell++)
+                dst[offset + cell/perWord] |= (long) (cells[cell]+1) << ((cell%perWord)*bits);
+        }
+    }
+
+    /**
+     * Board whose distance from the goal, as measured by distance, is within [min, max].
+     * Uniform boards are tried first. Bands closer to the goal than those ever get are reached
+     * by random walks from the goal that stop as soon as the distance gets to min.
+     * @throws IllegalArgumentException if nothing in the band turned up
+     */
+    public PackedBoard next(int dimension, ToIntFunction<PackedBoard> distance, int min, int max) {
+        if (min > max)
+            throw new IllegalArgumentException("empty band ["+min+", "+max+"]");
+
+        for (int attempt = 0; attempt < UNIFORM_ATTEMPTS; attempt++) {
+            PackedBoard board = next(dimension);
+            int d = distance.applyAsInt(board);
+            if (d >= min && d <= max)
+                return board;
+        }
+
+        // a walk that went this far without getting to min has wandered off
+        int maxSteps = 16*max + 64;
+        for (int attempt = 0; attempt < WALK_ATTEMPTS; attempt++) {
+            PackedBoard board = PackedBoard.goal(dimension);
+            Direction lastDir = null;
+            for (int step = 0; step < maxSteps; ) {
+                Direction dir = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                PackedBoard moved = lastDir != null && dir == lastDir.opposite()? null : board.move(dir);
+                if (moved == null)
+                    continue;
+                board = moved;
+                lastDir = dir;
+                step++;
+
+                int d = distance.applyAsInt(board);
+                if (d >= min) {
+                    if (d <= max)
+                        return board;
+                    break;
+                }
+            }
+        }
+        throw new IllegalArgumentException("no "+dimension+"x"+dimension+" board found within ["+min+", "+max+"]");
+    }
+
+    public static ToIntFunction<PackedBoard> heuristicDistance(Heuristic heuristic) {
+        return heuristic::estimate;
+    }
+
+    /**
+     * Solves every board it measures, only practical with boards the engine solves quickly.
+     */
+    public static ToIntFunction<PackedBoard> optimalDistance(SolverEngine engine) {
+        return board -> engine.solve(board).moves().length;
+    }
+
+    private void shuffle(int dimension) {
+        int count = dimension*dimension;
+        if (cells.length != count)
+            cells = new int[count];
+        for (int i = 0; i < count-1; i++)
+            cells[i] = i;
+        cells[count-1] = -1;
+
+        int swaps = 0;
+        int blank = count-1;
+        for (int i = count-1; i > 0; i--) {
+            int j = random.nextInt(i+1);
+            if (j == i)
+                continue;
+            int tile = cells[i];
+            cells[i] = cells[j];
+            cells[j] = tile;
+            swaps++;
+            if (cells[i] == -1)
+                blank = i;
+            else if (cells[j] == -1)
+                blank = j;
+        }
+
+        // solvable when the permutation and the blank's distance from its goal cell have the same parity
+        int blankDistance = (dimension-1 - blank%dimension) + (dimension-1 - blank/dimension);
+        if (((swaps ^ blankDistance) & 1) != 0) {
+            int a = blank == 0? 1 : 0;
+            int b = blank <= 1? 2 : 1;
+            int tile = cells[a];
+            cells[a] = cells[b];
+            cells[b] = tile;
+        }
+    }
+}
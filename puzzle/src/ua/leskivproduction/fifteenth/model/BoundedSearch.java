@@ -0,0 +1,193 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Depth-first search bounded by f = g + h, the kernel of every IDA* engine.
+ * Moves are applied and undone in place, so memory is linear in the depth.
+ * An optional transposition table cuts states already searched with more budget
+ * in the same iteration and remembers how far from the goal every searched state turned out to be.
+ */
+class BoundedSearch {
+    static final int FOUND = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Heuristic heuristic;
+    private final TranspositionTable table;
+    private SearchControl control;
+    private AtomicBoolean found;
+
+    private MutableBoard board;
+    private long[] key;
+    private Direction[] path = new Direction[0];
+    // h along the path, only kept with a table
+    private int[] estimates = new int[0];
+    private int rootDepth;
+    private long expanded;
+    private int unreported;
+    private int generated;
+    private int duplicates;
+    private boolean stopped;
+    private int solutionLength;
+
+    BoundedSearch(Heuristic heuristic) {
+        this(heuristic, null);
+    }
+
+    /**
+     * @param table may be null, only one search at a time may use it
+     */
+    BoundedSearch(Heuristic heuristic, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.table = table;
+    }
+
+    /**
+     * Starts from a node reached from the root by the given moves.
+     * Once the control stops or the found flag is set, the search unwinds
+     * as if nothing was found below the bound.
+     * @param found set by whichever parallel search reaches the goal first, may be null
+     */
+    void reset(PackedBoard state, Direction[] prefix, int prefixLength, SearchControl control, AtomicBoolean found) {
+        this.control = control;
+        this.found = found;
+        if (board == null || board.dimension() != state.dimension())
+            board = new MutableBoard(state);
+        else
+            board.load(state);
+        if (table != null) {
+            if (table.dimension() != state.dimension())
+                throw new IllegalArgumentException("transposition table is for "+table.dimension()+
+                        "x"+table.dimension()+" boards");
+            key = new long[PackedBoard.wordCount(state.dimension())];
+            state.writeWords(key, 0);
+            table.nextGeneration();
+        }
+        ensurePath(prefixLength+1);
+        System.arraycopy(prefix, 0, path, 0, prefixLength);
+        rootDepth = prefixLength;
+        expanded = 0;
+        unreported = 0;
+        generated = duplicates = 0;
+        stopped = false;
+    }
+
+    /**
+     * @return FOUND or the smallest f that exceeded the bound
+     */
+    int search(int moves, int estimate, int bound, Direction lastDir) {
+        int f = moves + estimate;
+        if (table != null) {
+            int slot = table.find(key, 0);
+            if (slot != -1) {
+                f = Math.max(f, moves + table.bound(slot));
+                // searched before in this iteration with at least as much budget left
+                if (table.depth(slot) <= moves) {
+                    duplicates++;
+                    return Math.max(f, bound+1);
+                }
+            }
+        }
+        if (f > bound)
+            return f;
+        if (estimate == 0 && board.isGoal()) {
+            solutionLength = moves;
+            return FOUND;
+        }
+        if (stopped)
+            return Integer.MAX_VALUE;
+        expanded++;
+        if (++unreported == SearchControl.CHECK_INTERVAL) {
+            unreported = 0;
+            control.count(generated, duplicates);
+            generated = duplicates = 0;
+            stopped = !control.proceed(SearchControl.CHECK_INTERVAL) || (found != null && found.get());
+        }
+        ensurePath(moves+1);
+        estimates[moves] = estimate;
+
+        int dimension = board.dimension();
+        int min = Integer.MAX_VALUE;
+        for (Direction dir : DIRECTIONS) {
+            if (lastDir != null && dir == lastDir.opposite())
+                continue;
+            int emptied = board.blankIndex();
+            int source = PackedBoard.sourceCell(emptied, dimension, dir);
+            if (source < 0)
+                continue;
+
+            int tile = board.slide(source);
+            generated++;
+            if (table != null)
+                PackedBoard.slide(dimension, key, 0, emptied, source, key, 0);
+            path[moves] = dir;
+
+            int t = search(moves+1, heuristic.update(estimate, board, tile, source, emptied), bound, dir);
+
+            board.slide(emptied);
+            if (table != null)
+                PackedBoard.slide(dimension, key, 0, source, emptied, key, 0);
+
+            if (t == FOUND)
+                return FOUND;
+            if (t < min)
+                min = t;
+        }
+        if (table != null && !stopped)
+            table.store(key, 0, moves, learnedBound(moves, min, lastDir));
+        return min;
+    }
+
+    /**
+     * Children other than the parent can't reach the goal cheaper than min, and going back
+     * costs at least one more than the parent's estimate. The state's distance is at least the smaller of the two.
+     */
+    private int learnedBound(int moves, int min, Direction lastDir) {
+        int bound = min == Integer.MAX_VALUE? Integer.MAX_VALUE : min-moves;
+        if (lastDir != null)
+            bound = Math.min(bound, moves > rootDepth? estimates[moves-1]+1 : estimates[moves]);
+        return bound;
+    }
+
+    private void ensurePath(int length) {
+        if (path.length < length) {
+            Direction[] grown = new Direction[Math.max(length, path.length*2)];
+            System.arraycopy(path, 0, grown, 0, path.length);
+            path = grown;
+            estimates = Arrays.copyOf(estimates, grown.length);
+        }
+    }
+
+    /**
+     * @return moves from the root to the goal found by the last search
+     */
+    Direction[] solution() {
+        Direction[] moves = new Direction[solutionLength];
+        System.arraycopy(path, 0, moves, 0, solutionLength);
+        return moves;
+    }
+
+    /**
+     * Hands the nodes expanded since the last check over to the control.
+     */
+    void flush() {
+        control.record(unreported);
+        control.count(generated, duplicates);
+        unreported = generated = duplicates = 0;
+    }
+
+    /**
+     * @return true if the last search was cut short rather than exhausted
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    long expanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,379 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Non-optimal solver for boards of any size. Rows are put in place from the top down to the
+ * last two, which are finished column by column from the left, and the 2x2 left in the corner
+ * is turned until it is solved. Every tile is walked to its cell one step at a time, the blank
+ * is taken around it by the shortest way that keeps off the solved cells.
+ * The last two tiles of a row (of a column) go in together: the second one is parked first
+ * where the first one belongs, the first one next to it, and two moves slide them home.
+ * That takes O(n³) moves and time, and memory for the board plus the moves.
+ *
+ * The optional improvement pass cuts every stretch of moves that comes back to a state
+ * seen shortly before, inverse pairs included.
+ */
+public class ConstructiveEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // states the improvement pass remembers before it starts over
+    private static final int LOOP_WINDOW = 1 << 12;
+
+    private final boolean improve;
+
+    private int dimension;
+    // tile of every cell, -1 for the blank, and cell of every tile
+    private int[] cells;
+    private int[] position;
+    private int blank;
+    private boolean[] locked;
+
+    private byte[] moves = new byte[64];
+    private int length;
+
+    // blank routing buffers, seen holds the generation that reached the cell
+    private int[] parent;
+    private int[] seen;
+    private int[] queue;
+    private int generation;
+
+    public ConstructiveEngine() {
+        this(true);
+    }
+
+    /**
+     * @param improve whether to shorten the moves before returning them
+     */
+    public ConstructiveEngine(boolean improve) {
+        this.improve = improve;
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        load(start);
+        int n = dimension;
+
+        for (int row = 0; row+2 < n; row++) {
+            for (int col = 0; col+2 < n; col++) {
+                int cell = row*n + col;
+                place(cell, cell);
+                locked[cell] = true;
+                if (!control.proceed(1))
+                    return SearchResult.stopped(control);
+            }
+            placePair(row*n + n-2, row*n + n-1, n);
+        }
+        for (int col = 0; col+2 < n; col++) {
+            placePair((n-1)*n + col, (n-2)*n + col, 1);
+            if (!control.proceed(1))
+                return SearchResult.stopped(control);
+        }
+        if (n >= 2 && !solveCorner())
+            return new SearchResult(null, control.expandedNodes());
+
+        if (improve)
+            removeLoops(start);
+        Direction[] solution = new Direction[length];
+        for (int i = 0; i < length; i++)
+            solution[i] = DIRECTIONS[moves[i]];
+        return new SearchResult(SearchResult.Status.SOLVED, solution, control.expandedNodes(), start.manhattan());
+    }
+
+    private void load(PackedBoard start) {
+        int n = start.dimension();
+        if (n != dimension || cells == null) {
+            dimension = n;
+            cells = new int[n*n];
+            position = new int[n*n];
+            locked = new boolean[n*n];
+            parent = new int[n*n];
+            seen = new int[n*n];
+            queue = new int[n*n];
+        }
+        Arrays.fill(locked, false);
+        Arrays.fill(seen, 0);
+        generation = 0;
+        for (int cell = 0; cell < n*n; cell++) {
+            int tile = start.tileAt(cell);
+            cells[cell] = tile;
+            if (tile == -1)
+                blank = cell;
+            else
+                position[tile] = cell;
+        }
+        length = 0;
+    }
+
+    /**
+     * Puts the tiles belonging to first and second home together. The one belonging to first
+     * is parked at second, the other one past it by away (below for rows, right for columns),
+     * then the blank comes to first and pulls both in.
+     */
+    private void placePair(int first, int second, int away) {
+        if (position[first] == first && position[second] == second) {
+            locked[first] = locked[second] = true;
+            return;
+        }
+        place(first, second);
+        locked[second] = true;
+        // first has a single way out now, neither the blank nor the other tile may be left in it
+        while (blank == first || position[second] == first) {
+            if (blank == first) {
+                slideFrom(first+away);
+            } else {
+                locked[second] = false;
+                place(second, second + 2*away);
+                place(first, second);
+                locked[second] = true;
+            }
+        }
+        locked[first] = true;
+        place(second, second+away);
+        locked[second+away] = true;
+        locked[first] = false;
+        moveBlank(first, -1);
+        locked[second+away] = false;
+        slideFrom(second);
+        slideFrom(second+away);
+        locked[first] = true;
+    }
+
+    /**
+     * Walks the tile to the target, across first as long as that doesn't run into a solved cell.
+     */
+    private void place(int tile, int target) {
+        int n = dimension;
+        int targetRow = target/n, targetCol = target%n;
+        while (position[tile] != target) {
+            int at = position[tile];
+            int row = at/n, col = at%n;
+            int across = col == targetCol? -1 : at + (targetCol > col? 1 : -1);
+            int next;
+            if (across != -1 && !locked[across])
+                next = across;
+            else if (row != targetRow)
+                next = at + (targetRow > row? n : -n);
+            else
+                next = across;
+            moveBlank(next, at);
+            slideFrom(at);
+        }
+    }
+
+    /**
+     * Takes the blank to the target without touching solved cells or the avoided one.
+     * Looks for the way around the box the two cells span first, then over the whole board.
+     */
+    private void moveBlank(int target, int avoid) {
+        if (blank == target)
+            return;
+        int n = dimension;
+        int top = Math.max(0, Math.min(blank/n, target/n) - 1);
+        int bottom = Math.min(n-1, Math.max(blank/n, target/n) + 1);
+        int left = Math.max(0, Math.min(blank%n, target%n) - 1);
+        int right = Math.min(n-1, Math.max(blank%n, target%n) + 1);
+        if (!route(target, avoid, top, left, bottom, right) && !route(target, avoid, 0, 0, n-1, n-1))
+            throw new IllegalStateException("blank can't reach cell "+target);
+    }
+
+    /**
+     * Breadth-first search from the blank within the rectangle, then the moves along the way found.
+     */
+    private boolean route(int target, int avoid, int top, int left, int bottom, int right) {
+        int n = dimension;
+        generation++;
+        int head = 0, tail = 0;
+        queue[tail++] = blank;
+        seen[blank] = generation;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == target) {
+                // the way back fills the already searched part of the queue
+                int steps = 0;
+                for (int c = target; c != blank; c = parent[c])
+                    queue[steps++] = c;
+                for (int i = steps-1; i >= 0; i--)
+                    slideFrom(queue[i]);
+                return true;
+            }
+            int row = cell/n, col = cell%n;
+            if (row > top)
+                tail = visit(cell-n, cell, avoid, tail);
+            if (row < bottom)
+                tail = visit(cell+n, cell, avoid, tail);
+            if (col > left)
+                tail = visit(cell-1, cell, avoid, tail);
+            if (col < right)
+                tail = visit(cell+1, cell, avoid, tail);
+        }
+        return false;
+    }
+
+    private int visit(int cell, int from, int avoid, int tail) {
+        if (seen[cell] == generation || locked[cell] || cell == avoid)
+            return tail;
+        seen[cell] = generation;
+        parent[cell] = from;
+        queue[tail] = cell;
+        return tail+1;
+    }
+
+    /**
+     * Turns the blank around the 2x2 left in the corner, twelve turns go through all of its states.
+     */
+    private boolean solveCorner() {
+        int n = dimension;
+        int topLeft = (n-2)*n + n-2;
+        int[] cycle = {topLeft, topLeft+1, topLeft+n+1, topLeft+n};
+        for (int turn = 0; turn < 12; turn++) {
+            if (cells[topLeft] == topLeft && cells[topLeft+1] == topLeft+1 && cells[topLeft+n] == topLeft+n)
+                return true;
+            int i = 0;
+            while (cycle[i] != blank)
+                i++;
+            slideFrom(cycle[(i+1) % 4]);
+        }
+        return false;
+    }
+
+    /**
+     * Moves the tile next to the blank into it.
+     */
+    private void slideFrom(int source) {
+        int n = dimension;
+        Direction dir;
+        if (source == blank+n)
+            dir = Direction.UP;
+        else if (source == blank-n)
+            dir = Direction.DOWN;
+        else if (source == blank+1)
+            dir = Direction.LEFT;
+        else
+            dir = Direction.RIGHT;
+
+        int tile = cells[source];
+        cells[blank] = tile;
+        position[tile] = blank;
+        cells[source] = -1;
+        blank = source;
+
+        if (length == moves.length)
+            moves = Arrays.copyOf(moves, Math.max(64, length*2));
+        moves[length++] = (byte) dir.ordinal();
+    }
+
+    /**
+     * Replays the moves from the start and, once a state comes up again, drops the moves
+     * made since it was last seen. States are told apart by their Zobrist hash, so the result
+     * is replayed once more and thrown away if a collision spoiled it.
+     */
+    private void removeLoops(PackedBoard start) {
+        int n = dimension;
+        int[] board = new int[n*n];
+        for (int cell = 0; cell < board.length; cell++)
+            board[cell] = start.tileAt(cell);
+        int[] blankCell = {start.blankIndex()};
+        long hash = Zobrist.hash(start);
+
+        byte[] kept = new byte[length];
+        int keptLength = 0;
+        // hashes of the states the kept moves went through since the window started,
+        // and an open-addressing table from hash to the number of moves that got there
+        long[] trail = new long[LOOP_WINDOW+1];
+        long[] keys = new long[4*LOOP_WINDOW];
+        int[] lengths = new int[4*LOOP_WINDOW];
+        Arrays.fill(lengths, -1);
+        int windowStart = 0;
+        int stored = 0;
+        trail[0] = hash;
+        remember(keys, lengths, hash, 0);
+
+        for (int i = 0; i < length; i++) {
+            hash = apply(board, blankCell, moves[i], hash);
+            if (blankCell[0] < 0)
+                return;
+            kept[keptLength++] = moves[i];
+
+            int earlier = recall(keys, lengths, trail, windowStart, keptLength, hash);
+            if (earlier >= 0) {
+                // the board is back where it was after `earlier` moves
+                keptLength = earlier;
+                continue;
+            }
+            if (++stored == LOOP_WINDOW) {
+                Arrays.fill(lengths, -1);
+                stored = 0;
+                windowStart = keptLength;
+            }
+            trail[keptLength-windowStart] = hash;
+            remember(keys, lengths, hash, keptLength);
+        }
+
+        if (solves(start, kept, keptLength)) {
+            moves = kept;
+            length = keptLength;
+        }
+    }
+
+    private static void remember(long[] keys, int[] lengths, long hash, int length) {
+        int mask = keys.length-1;
+        int slot = (int) hash & mask;
+        while (lengths[slot] != -1 && keys[slot] != hash)
+            slot = (slot+1) & mask;
+        keys[slot] = hash;
+        lengths[slot] = length;
+    }
+
+    /**
+     * @return how many of the kept moves led to the state, -1 if it isn't on their way
+     * since the window started; entries of moves cut since are told by the trail
+     */
+    private static int recall(long[] keys, int[] lengths, long[] trail, int windowStart, int keptLength, long hash) {
+        int mask = keys.length-1;
+        for (int slot = (int) hash & mask; lengths[slot] != -1; slot = (slot+1) & mask) {
+            if (keys[slot] != hash)
+                continue;
+            int length = lengths[slot];
+            return length >= windowStart && length < keptLength && trail[length-windowStart] == hash? length : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Applies a move to a plain cell array.
+     * @return the new hash; the blank cell is set to -1 if the move was illegal
+     */
+    private long apply(int[] board, int[] blankCell, byte move, long hash) {
+        int n = dimension;
+        int empty = blankCell[0];
+        int source = PackedBoard.sourceCell(empty, n, DIRECTIONS[move]);
+        if (source < 0) {
+            blankCell[0] = -1;
+            return 0;
+        }
+        int tile = board[source];
+        board[empty] = tile;
+        board[source] = -1;
+        blankCell[0] = source;
+        return hash ^ Zobrist.delta(n, tile, source, empty);
+    }
+
+    private boolean solves(PackedBoard start, byte[] sequence, int count) {
+        int n = dimension;
+        int[] board = new int[n*n];
+        for (int cell = 0; cell < board.length; cell++)
+            board[cell] = start.tileAt(cell);
+        int[] blankCell = {start.blankIndex()};
+        for (int i = 0; i < count; i++) {
+            apply(board, blankCell, sequence[i], 0);
+            if (blankCell[0] < 0)
+                return false;
+        }
+        for (int cell = 0; cell < board.length-1; cell++)
+            if (board[cell] != cell)
+                return false;
+        return true;
+    }
+}
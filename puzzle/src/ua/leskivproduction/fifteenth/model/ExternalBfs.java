@@ -0,0 +1,298 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Properties;
+
+/**
+ * Breadth-first frontier search that keeps its layers on disk, for state spaces
+ * that don't fit in memory. Every layer is a sorted sequence of packed states in
+ * {@link StateSegments segment files}. Children of a layer are collected in memory
+ * in chunks, every chunk is sorted and written as a run, then the runs are merged,
+ * deduplicated and cleaned of the layer before the parent's.
+ * The puzzle graph is bipartite, so a state can only repeat two layers back.
+ * Moves follow {@link Board#move(Direction)}.
+ *
+ * After every layer a checkpoint is written, a run started again in the same
+ * directory goes on from the last complete layer.
+ *
+ * Usage: {@code ExternalBfs --dir path [--dimension n] [--max-depth d] [--memory states] [--keep-layers]}
+ */
+public class ExternalBfs {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final long SEGMENT_BYTES = 256L << 20;
+    private static final String CHECKPOINT = "checkpoint";
+
+    public interface LayerListener {
+        void layer(int depth, long states);
+    }
+
+    private final Path directory;
+    private final PackedBoard start;
+    private final int dimension;
+    private final int stride;
+    private final int chunkStates;
+    private final boolean keepLayers;
+
+    /**
+     * @param chunkStates children kept in memory before a run is written
+     * @param keepLayers false to delete layers once they are no longer needed for deduplication
+     */
+    public ExternalBfs(Path directory, PackedBoard start, int chunkStates, boolean keepLayers) {
+        if (chunkStates < DIRECTIONS.length)
+            throw new IllegalArgumentException("chunk of "+chunkStates+" states is too small");
+        this.directory = directory;
+        this.start = start;
+        this.dimension = start.dimension();
+        this.stride = PackedBoard.wordCount(dimension);
+        this.chunkStates = chunkStates;
+        this.keepLayers = keepLayers;
+    }
+
+    /**
+     * Explores layers until one comes out empty or maxDepth is reached.
+     * @return size of every layer, starting from the start's one
+     */
+    public long[] run(int maxDepth, LayerListener listener) throws IOException {
+        Files.createDirectories(directory);
+        long[] sizes = resume();
+        for (int depth = 0; depth < sizes.length; depth++)
+            listener.layer(depth, sizes[depth]);
+
+        while (sizes.length-1 < maxDepth && sizes[sizes.length-1] > 0) {
+            int depth = sizes.length;
+            long size = expand(depth);
+            sizes = Arrays.copyOf(sizes, depth+1);
+            sizes[depth] = size;
+            writeCheckpoint(sizes);
+            if (!keepLayers && depth >= 2)
+                StateSegments.delete(layer(depth-2));
+            listener.layer(depth, size);
+        }
+        return sizes;
+    }
+
+    /**
+     * Loads the checkpoint and drops whatever was written after it, or starts from scratch.
+     */
+    private long[] resume() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        long[] sizes;
+        if (Files.exists(file)) {
+            Properties checkpoint = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                checkpoint.load(in);
+            }
+            if (!start.toString().equals(checkpoint.getProperty("start")))
+                throw new IllegalStateException(directory+" holds a search from "+checkpoint.getProperty("start"));
+            sizes = Arrays.stream(checkpoint.getProperty("layers").split(","))
+                    .mapToLong(Long::parseLong).toArray();
+        } else {
+            sizes = new long[] {1};
+        }
+
+        int complete = sizes.length-1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.seg")) {
+            for (Path seg : files) {
+                String name = seg.getFileName().toString();
+                if (name.startsWith("run-") || name.startsWith("layer-") && (depthOf(name) > complete ||
+                        !keepLayers && depthOf(name) < complete-1))
+                    Files.delete(seg);
+            }
+        }
+
+        if (complete == 0) {
+            try (StateSegments.Writer writer = writer("layer-0")) {
+                long[] state = new long[stride];
+                start.writeWords(state, 0);
+                writer.write(state, 0);
+            }
+            writeCheckpoint(sizes);
+        }
+        return sizes;
+    }
+
+    private static int depthOf(String segmentName) {
+        return Integer.parseInt(segmentName.substring("layer-".length(), segmentName.indexOf('-', "layer-".length())));
+    }
+
+    /**
+     * Builds layer depth from the one before it.
+     * @return amount of states in the new layer
+     */
+    private long expand(int depth) throws IOException {
+        List<List<Path>> runs = new ArrayList<>();
+        long[] chunk = new long[chunkStates*stride];
+        int count = 0;
+
+        try (StateSegments.Reader parents = new StateSegments.Reader(layer(depth-1), stride)) {
+            while (parents.next()) {
+                if (count + DIRECTIONS.length > chunkStates) {
+                    runs.add(writeRun(depth, runs.size(), chunk, count));
+                    count = 0;
+                }
+                int blank = blankOf(parents.state);
+                for (Direction dir : DIRECTIONS) {
+                    int source = PackedBoard.sourceCell(blank, dimension, dir);
+                    if (source >= 0)
+                        PackedBoard.slide(dimension, parents.state, 0, blank, source, chunk, (count++)*stride);
+                }
+            }
+        }
+        if (count > 0)
+            runs.add(writeRun(depth, runs.size(), chunk, count));
+
+        long size = merge(depth, runs);
+        for (List<Path> run : runs)
+            StateSegments.delete(run);
+        return size;
+    }
+
+    private List<Path> writeRun(int depth, int index, long[] chunk, int count) throws IOException {
+        int unique = StateSegments.sortUnique(chunk, count, stride);
+        try (StateSegments.Writer writer = new StateSegments.Writer(directory,
+                "run-"+depth+"-"+index, stride, Math.max(1, unique))) {
+            for (int i = 0; i < unique; i++)
+                writer.write(chunk, i*stride);
+            return writer.files();
+        }
+    }
+
+    /**
+     * Streams the sorted runs into the layer, skipping duplicates and states of the layer two back.
+     */
+    private long merge(int depth, List<List<Path>> runs) throws IOException {
+        PriorityQueue<StateSegments.Reader> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (Comparator<StateSegments.Reader>) (a, b) -> StateSegments.compare(a.state, 0, b.state, 0, stride));
+        List<StateSegments.Reader> readers = new ArrayList<>();
+        long[] last = new long[stride];
+        boolean hasLast = false;
+
+        try (StateSegments.Writer writer = writer("layer-"+depth);
+             StateSegments.Reader grandparents = new StateSegments.Reader(
+                     depth >= 2? layer(depth-2) : new ArrayList<>(), stride)) {
+            for (List<Path> run : runs) {
+                StateSegments.Reader reader = new StateSegments.Reader(run, stride);
+                readers.add(reader);
+                if (reader.next())
+                    heads.add(reader);
+            }
+            boolean more = grandparents.next();
+
+            while (!heads.isEmpty()) {
+                StateSegments.Reader head = heads.poll();
+                long[] state = head.state;
+                if (!hasLast || StateSegments.compare(last, 0, state, 0, stride) != 0) {
+                    System.arraycopy(state, 0, last, 0, stride);
+                    hasLast = true;
+
+                    while (more && StateSegments.compare(grandparents.state, 0, state, 0, stride) < 0)
+                        more = grandparents.next();
+                    if (!more || StateSegments.compare(grandparents.state, 0, state, 0, stride) != 0)
+                        writer.write(state, 0);
+                }
+                if (head.next())
+                    heads.add(head);
+            }
+            return writer.count();
+        } finally {
+            for (StateSegments.Reader reader : readers)
+                reader.close();
+        }
+    }
+
+    private int blankOf(long[] state) {
+        for (int cell = 0; ; cell++)
+            if (PackedBoard.tileAt(dimension, state, 0, cell) == -1)
+                return cell;
+    }
+
+    private StateSegments.Writer writer(String prefix) {
+        return new StateSegments.Writer(directory, prefix, stride, (SEGMENT_BYTES-16)/(8L*stride));
+    }
+
+    /**
+     * @return segments of a complete layer in order
+     */
+    List<Path> layer(int depth) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "layer-"+depth+"-*.seg")) {
+            for (Path file : stream)
+                files.add(file);
+        }
+        files.sort(Comparator.naturalOrder());
+        return files;
+    }
+
+    private void writeCheckpoint(long[] sizes) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("start", start.toString());
+        StringBuilder layers = new StringBuilder();
+        for (long size : sizes)
+            layers.append(layers.length() == 0? "" : ",").append(size);
+        checkpoint.setProperty("layers", layers.toString());
+
+        Path file = directory.resolve(CHECKPOINT);
+        Path tmp = file.resolveSibling(CHECKPOINT+".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            checkpoint.store(out, "external BFS, complete layers");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = null;
+        int dimension = 3;
+        int maxDepth = Integer.MAX_VALUE;
+        int chunk = (int) Math.min(Integer.MAX_VALUE/8, Runtime.getRuntime().maxMemory()/4/8);
+        boolean keepLayers = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dir":
+                    directory = Paths.get(args[++i]);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-depth":
+                    maxDepth = Integer.parseInt(args[++i]);
+                    break;
+                case "--memory":
+                    chunk = Integer.parseInt(args[++i]);
+                    break;
+                case "--keep-layers":
+                    keepLayers = true;
+                    break;
+                default:
+                    System.err.println("Unknown option "+args[i]);
+                    System.exit(1);
+            }
+        }
+        if (directory == null) {
+            System.err.println("Usage: ExternalBfs --dir path [--dimension n] [--max-depth d] " +
+                    "[--memory states] [--keep-layers]");
+            System.exit(1);
+        }
+
+        PackedBoard goal = PackedBoard.goal(dimension);
+        chunk /= PackedBoard.wordCount(dimension);
+        long[] total = new long[1];
+        new ExternalBfs(directory, goal, chunk, keepLayers).run(maxDepth, (depth, states) -> {
+            total[0] += states;
+            System.out.println(depth+"\t"+states+"\t"+total[0]);
+        });
+    }
+}
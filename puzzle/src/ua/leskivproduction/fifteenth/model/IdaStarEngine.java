@@ -0,0 +1,58 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+/**
+ * Iterative deepening A*. Depth-first search bounded by f = g + h,
+ * the bound grows to the smallest f that exceeded it on the previous iteration.
+ * Moves are applied and undone in place, so memory is linear in the solution depth.
+ * With a {@link TranspositionTable} transpositions are searched once per iteration and
+ * the bounds learned on one iteration raise the estimates of the next.
+ */
+public class IdaStarEngine implements SolverEngine {
+    private static final Direction[] NO_MOVES = new Direction[0];
+
+    private final Heuristic heuristic;
+    private final BoundedSearch search;
+
+    public IdaStarEngine() {
+        this(new ManhattanHeuristic());
+    }
+
+    public IdaStarEngine(Heuristic heuristic) {
+        this(heuristic, null);
+    }
+
+    /**
+     * @param table may be null, must not be shared with another engine running at the same time
+     */
+    public IdaStarEngine(Heuristic heuristic, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.search = new BoundedSearch(heuristic, table);
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        int estimate = heuristic.estimate(start);
+        int bound = estimate;
+        while (true) {
+            // every shorter bound came out empty
+            control.reportBound(bound);
+            control.iterationStarted(bound);
+            search.reset(start, NO_MOVES, 0, control, null);
+            int next = search.search(0, estimate, bound, null);
+            search.flush();
+
+            if (next == BoundedSearch.FOUND)
+                return new SearchResult(search.solution(), control.expandedNodes());
+            if (search.isStopped())
+                return SearchResult.stopped(control);
+            if (next == Integer.MAX_VALUE)
+                return new SearchResult(null, control.expandedNodes());
+            control.iterationFinished(bound);
+            bound = next;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of estimates {@link RealTimeEngine} learned, keyed by Zobrist hashes.
+ * Slots are grouped by {@value #WAYS}, a hash may only live in the group it points to.
+ * When the group is full the entry stored longest ago goes: the engine rarely comes back
+ * to states it left that far behind, and a forgotten state only falls back to its heuristic
+ * estimate, which is a lower bound as well. Not thread-safe.
+ */
+final class LearnedEstimates {
+    static final long DEFAULT_MEMORY = 4L << 20;
+    private static final int WAYS = 4;
+
+    private final long[] keys;
+    // estimate | time stored << 32, time 0 marks an empty slot
+    private final long[] values;
+    private final int groupMask;
+    private int time;
+
+    /**
+     * @param memoryBytes the table never takes more than this, it is rounded down to a power of two of slots
+     */
+    LearnedEstimates(long memoryBytes) {
+        long slots = memoryBytes/16;
+        if (slots < WAYS)
+            throw new IllegalArgumentException(memoryBytes+" bytes is too little for learned estimates");
+        int capacity = Integer.highestOneBit((int) Math.min(slots, 1 << 30));
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.groupMask = capacity/WAYS-1;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    void clear() {
+        Arrays.fill(values, 0);
+        time = 0;
+    }
+
+    /**
+     * @param estimate heuristic estimate of the state
+     * @return what was learned about the state, the estimate if it is larger or nothing was
+     */
+    int get(long hash, int estimate) {
+        int slot = find(hash);
+        return slot == -1? estimate : Math.max(estimate, (int) values[slot]);
+    }
+
+    void put(long hash, int estimate) {
+        if (++time == Integer.MAX_VALUE) {
+            // older entries would look newer than the ones stored from now on
+            clear();
+            time = 1;
+        }
+        int slot = find(hash);
+        if (slot == -1)
+            slot = victim(group(hash));
+        keys[slot] = hash;
+        values[slot] = (estimate & 0xFFFFFFFFL) | (long) time << 32;
+    }
+
+    private int find(long hash) {
+        int base = group(hash);
+        for (int slot = base; slot < base+WAYS; slot++)
+            if (values[slot] != 0 && keys[slot] == hash)
+                return slot;
+        return -1;
+    }
+
+    private int victim(int base) {
+        int victim = base;
+        for (int slot = base; slot < base+WAYS; slot++) {
+            if (values[slot] == 0)
+                return slot;
+            if (values[slot] >>> 32 < values[victim] >>> 32)
+                victim = slot;
+        }
+        return victim;
+    }
+
+    private int group(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & groupMask)*WAYS;
+    }
+}
@@ -0,0 +1,108 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable sequence of moves packed two bits per move, a direction's code being its ordinal.
+ * Boards along the way are only made when asked for, see {@link #boards(PackedBoard)}.
+ */
+public final class MoveSequence {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // UP/LEFT and DOWN/RIGHT differ only in the high bit of their code
+    private static final int TRANSPOSE_MASK = 0xAA;
+
+    private final byte[] codes;
+    private final int length;
+
+    private MoveSequence(byte[] codes, int length) {
+        this.codes = codes;
+        this.length = length;
+    }
+
+    public static MoveSequence of(Direction[] moves) {
+        byte[] codes = new byte[(moves.length+3)/4];
+        for (int i = 0; i < moves.length; i++)
+            codes[i >> 2] |= moves[i].ordinal() << ((i & 3) << 1);
+        return new MoveSequence(codes, moves.length);
+    }
+
+    /**
+     * @param letters moves as written by {@link #toString()}
+     */
+    public static MoveSequence parse(String letters) {
+        return of(Moves.parse(letters));
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Direction get(int step) {
+        if (step < 0 || step >= length)
+            throw new IndexOutOfBoundsException("step "+step+" of "+length);
+        return DIRECTIONS[(codes[step >> 2] >> ((step & 3) << 1)) & 3];
+    }
+
+    public Direction[] toArray() {
+        Direction[] moves = new Direction[length];
+        for (int i = 0; i < length; i++)
+            moves[i] = get(i);
+        return moves;
+    }
+
+    /**
+     * Solves the board's transpose about the main diagonal, see {@link SolutionCache}.
+     */
+    MoveSequence transposed() {
+        byte[] flipped = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++)
+            flipped[i] = (byte) (codes[i] ^ TRANSPOSE_MASK);
+        return new MoveSequence(flipped, length);
+    }
+
+    /**
+     * Applies the moves from one step up to another straight to the board.
+     * @return false if one of them was illegal there, the moves before it stay applied
+     */
+    public boolean replay(Board board, int from, int to) {
+        for (int step = from; step < to; step++) {
+            if (!board.move(get(step)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Boards after every move, each one made when the iteration reaches it.
+     */
+    public Iterable<Board> boards(PackedBoard start) {
+        return () -> new Iterator<Board>() {
+            PackedBoard state = start;
+            int step;
+
+            @Override
+            public boolean hasNext() {
+                return step < length;
+            }
+
+            @Override
+            public Board next() {
+                if (step >= length)
+                    throw new NoSuchElementException();
+                state = state.move(get(step++));
+                return new Board(state);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++)
+            letters[i] = Moves.letter(get(i));
+        return new String(letters);
+    }
+}
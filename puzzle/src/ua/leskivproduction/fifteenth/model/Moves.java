@@ -0,0 +1,35 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+/**
+ * Compact text form of move sequences, one letter per move: U, D, L or R.
+ */
+public final class Moves {
+    private static final String LETTERS = "UDLR";
+
+    private Moves() {
+    }
+
+    public static char letter(Direction dir) {
+        return LETTERS.charAt(dir.ordinal());
+    }
+
+    public static String toString(Direction[] moves) {
+        char[] letters = new char[moves.length];
+        for (int i = 0; i < moves.length; i++)
+            letters[i] = letter(moves[i]);
+        return new String(letters);
+    }
+
+    public static Direction[] parse(String letters) {
+        Direction[] moves = new Direction[letters.length()];
+        for (int i = 0; i < moves.length; i++) {
+            int index = LETTERS.indexOf(Character.toUpperCase(letters.charAt(i)));
+            if (index < 0)
+                throw new IllegalArgumentException("unknown move '"+letters.charAt(i)+"'");
+            moves[i] = Direction.values()[index];
+        }
+        return moves;
+    }
+}
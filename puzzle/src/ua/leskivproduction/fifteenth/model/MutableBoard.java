@@ -0,0 +1,63 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Plain cell array that depth-first engines slide tiles on in place.
+ */
+class MutableBoard implements TileGrid {
+    private final int dimension;
+    private final int[] cells;
+    private int blank;
+
+    MutableBoard(PackedBoard start) {
+        this.dimension = start.dimension();
+        this.cells = new int[dimension*dimension];
+        load(start);
+    }
+
+    /**
+     * Reuses the cell array for another board of the same size.
+     */
+    void load(PackedBoard state) {
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = state.tileAt(i);
+        blank = state.blankIndex();
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int blankIndex() {
+        return blank;
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Moves the tile from source into the blank.
+     * @return tile that was moved
+     */
+    int slide(int source) {
+        int tile = cells[source];
+        cells[blank] = tile;
+        cells[source] = -1;
+        blank = source;
+        return tile;
+    }
+
+    boolean isGoal() {
+        for (int i = 0; i < cells.length-1; i++)
+            if (cells[i] != i)
+                return false;
+        return true;
+    }
+
+    PackedBoard pack() {
+        return PackedBoard.of(dimension, cells);
+    }
+}
@@ -0,0 +1,240 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Search nodes kept in parallel primitive arrays and addressed by int ids:
+ * packed state, blank cell, parent id, last move, g and h.
+ * An open addressing index maps every state to its latest node, unless the
+ * search keeps track of states on its own (see {@link TranspositionTable}).
+ * A node found by a shorter path can be relinked in place, so the id keeps
+ * standing for its state and its queue entry can be lowered.
+ * Arrays are only cleared between searches, never shrunk.
+ */
+class NodeArena {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    final int dimension;
+    final int stride;
+    private final boolean indexing;
+
+    private long[] states;
+    private int[] blanks;
+    private int[] parents;
+    private byte[] dirs;
+    private int[] depths;
+    private int[] estimates;
+    private boolean[] closed;
+    private int size;
+
+    private int[] index;
+    private int indexed;
+
+    NodeArena(int dimension) {
+        this(dimension, true);
+    }
+
+    /**
+     * @param indexed false if {@link #find} won't be needed
+     */
+    NodeArena(int dimension, boolean indexed) {
+        this.dimension = dimension;
+        this.stride = PackedBoard.wordCount(dimension);
+        this.indexing = indexed;
+        allocate(1024);
+        index = new int[indexing? 2048 : 1];
+        Arrays.fill(index, -1);
+    }
+
+    private void allocate(int capacity) {
+        states = states == null? new long[capacity*stride] : Arrays.copyOf(states, capacity*stride);
+        blanks = blanks == null? new int[capacity] : Arrays.copyOf(blanks, capacity);
+        parents = parents == null? new int[capacity] : Arrays.copyOf(parents, capacity);
+        dirs = dirs == null? new byte[capacity] : Arrays.copyOf(dirs, capacity);
+        depths = depths == null? new int[capacity] : Arrays.copyOf(depths, capacity);
+        estimates = estimates == null? new int[capacity] : Arrays.copyOf(estimates, capacity);
+        closed = closed == null? new boolean[capacity] : Arrays.copyOf(closed, capacity);
+    }
+
+    void clear() {
+        size = 0;
+        indexed = 0;
+        Arrays.fill(index, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Stores a node whose state is taken from src and makes it the indexed node of that state.
+     * @param dir move that led here, null for the root
+     * @return id of the new node
+     */
+    int add(long[] src, int offset, int blank, int parent, Direction dir, int depth, int estimate) {
+        if (size == blanks.length)
+            allocate(size*2);
+
+        int node = size++;
+        System.arraycopy(src, offset, states, node*stride, stride);
+        blanks[node] = blank;
+        parents[node] = parent;
+        dirs[node] = (byte) (dir == null? -1 : dir.ordinal());
+        depths[node] = depth;
+        estimates[node] = estimate;
+        closed[node] = false;
+        if (indexing)
+            put(node);
+        return node;
+    }
+
+    /**
+     * Hands the node a shorter path. Its descendants keep their old depths
+     * until they are reached again, {@link #path} doesn't rely on them.
+     */
+    void relink(int node, int parent, Direction dir, int depth) {
+        parents[node] = parent;
+        dirs[node] = (byte) dir.ordinal();
+        depths[node] = depth;
+    }
+
+    /**
+     * @return queue priority ordering by f, deeper nodes first among equal ones
+     */
+    static long priority(int f, int depth) {
+        return (long) f << 32 | (Integer.MAX_VALUE - depth);
+    }
+
+    /**
+     * @return f of a {@link #priority}
+     */
+    static int f(long priority) {
+        return (int) (priority >>> 32);
+    }
+
+    /**
+     * @return id of the latest node with the same state as src, -1 if there's none
+     */
+    int find(long[] src, int offset) {
+        if (!indexing)
+            return -1;
+        int mask = index.length-1;
+        for (int i = hash(src, offset) & mask; index[i] != -1; i = (i+1) & mask)
+            if (sameState(index[i], src, offset))
+                return index[i];
+        return -1;
+    }
+
+    private void put(int node) {
+        if (2*(indexed+1) > index.length)
+            rehash(index.length*2);
+
+        int mask = index.length-1;
+        int offset = node*stride;
+        int i = hash(states, offset) & mask;
+        for (; index[i] != -1; i = (i+1) & mask) {
+            if (sameState(index[i], states, offset)) {
+                index[i] = node;
+                return;
+            }
+        }
+        index[i] = node;
+        indexed++;
+    }
+
+    private void rehash(int length) {
+        int[] old = index;
+        index = new int[length];
+        Arrays.fill(index, -1);
+        int mask = length-1;
+        for (int node : old) {
+            if (node == -1)
+                continue;
+            int i = hash(states, node*stride) & mask;
+            while (index[i] != -1)
+                i = (i+1) & mask;
+            index[i] = node;
+        }
+    }
+
+    private boolean sameState(int node, long[] src, int offset) {
+        int base = node*stride;
+        for (int w = 0; w < stride; w++)
+            if (states[base+w] != src[offset+w])
+                return false;
+        return true;
+    }
+
+    private int hash(long[] src, int offset) {
+        long h = 0;
+        for (int w = 0; w < stride; w++)
+            h = (h ^ src[offset+w])*0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    long[] states() {
+        return states;
+    }
+
+    int offset(int node) {
+        return node*stride;
+    }
+
+    int blank(int node) {
+        return blanks[node];
+    }
+
+    int parent(int node) {
+        return parents[node];
+    }
+
+    Direction dir(int node) {
+        return dirs[node] < 0? null : DIRECTIONS[dirs[node]];
+    }
+
+    int depth(int node) {
+        return depths[node];
+    }
+
+    int estimate(int node) {
+        return estimates[node];
+    }
+
+    boolean isClosed(int node) {
+        return closed[node];
+    }
+
+    void close(int node) {
+        closed[node] = true;
+    }
+
+    void reopen(int node) {
+        closed[node] = false;
+    }
+
+    /**
+     * Marks every node as not expanded, used when a search starts over with the nodes it has.
+     */
+    void reopenAll() {
+        Arrays.fill(closed, 0, size, false);
+    }
+
+    PackedBoard state(int node) {
+        return PackedBoard.fromWords(dimension, blanks[node], states, node*stride);
+    }
+
+    /**
+     * Moves along the parents, counted rather than taken from depths that a relinked ancestor made stale.
+     */
+    Direction[] path(int node) {
+        int length = 0;
+        for (int n = node; parents[n] != -1; n = parents[n])
+            length++;
+        Direction[] path = new Direction[length];
+        for (; parents[node] != -1; node = parents[node])
+            path[--length] = dir(node);
+        return path;
+    }
+}
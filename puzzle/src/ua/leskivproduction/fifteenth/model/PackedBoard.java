@@ -0,0 +1,274 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compact puzzle state used by the solver.
+ * Every cell keeps (tile+1), so the blank is stored as 0.
+ * Boards up to 4x4 fit into a single long (4 bits per cell),
+ * bigger ones are spread over a small long[].
+ */
+public final class PackedBoard implements TileGrid {
+    private final int dimension;
+    private final int blank;
+
+    private final long word;
+    private final long[] words;
+
+    private PackedBoard(int dimension, int blank, long word, long[] words) {
+        this.dimension = dimension;
+        this.blank = blank;
+        this.word = word;
+        this.words = words;
+    }
+
+    /**
+     * @param cells tiles in row-major order, -1 stands for the blank
+     * @throws IllegalArgumentException unless every tile 0..n*n-2 and the blank are there exactly once
+     */
+    public static PackedBoard of(int dimension, int[] cells) {
+        if (cells.length != dimension*dimension)
+            throw new IllegalArgumentException("expected "+dimension*dimension+" cells, got "+cells.length);
+
+        int bits = bitsPerCell(dimension);
+        int perWord = 64/bits;
+        long word = 0;
+        long[] words = fitsInLong(dimension)? null : new long[(cells.length+perWord-1)/perWord];
+        int blank = -1;
+        boolean[] seen = new boolean[cells.length];
+
+        for (int i = 0; i < cells.length; i++) {
+            // cells are named rather than tiles, callers number the tiles their own way
+            if (cells[i] < -1 || cells[i] > cells.length-2)
+                throw new IllegalArgumentException("cell "+i+" holds no tile of a "+dimension+"x"+dimension+" board");
+            if (seen[cells[i]+1])
+                throw new IllegalArgumentException(cells[i] == -1? "board has more than one blank cell" :
+                        "cell "+i+" repeats a tile");
+            seen[cells[i]+1] = true;
+
+            long v = cells[i]+1;
+            if (v == 0)
+                blank = i;
+            if (words == null)
+                word |= v << (i*bits);
+            else
+                words[i/perWord] |= v << ((i%perWord)*bits);
+        }
+        if (blank == -1)
+            throw new IllegalArgumentException("board has no blank cell");
+
+        return new PackedBoard(dimension, blank, word, words);
+    }
+
+    public static PackedBoard goal(int dimension) {
+        int[] cells = new int[dimension*dimension];
+        for (int i = 0; i < cells.length-1; i++)
+            cells[i] = i;
+        cells[cells.length-1] = -1;
+        return of(dimension, cells);
+    }
+
+    static boolean fitsInLong(int dimension) {
+        return dimension <= 4;
+    }
+
+    static int bitsPerCell(int dimension) {
+        return Math.max(4, 32-Integer.numberOfLeadingZeros(dimension*dimension-1));
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int blankIndex() {
+        return blank;
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        if (words == null)
+            return (int) ((word >>> (cell << 2)) & 0xF) - 1;
+
+        int bits = bitsPerCell(dimension);
+        int perWord = 64/bits;
+        return (int) ((words[cell/perWord] >>> ((cell%perWord)*bits)) & ((1L << bits)-1)) - 1;
+    }
+
+    /**
+     * @return amount of longs the encoding takes
+     */
+    public static int wordCount(int dimension) {
+        if (fitsInLong(dimension))
+            return 1;
+        int perWord = 64/bitsPerCell(dimension);
+        return (dimension*dimension+perWord-1)/perWord;
+    }
+
+    public void writeWords(long[] dst, int offset) {
+        if (words == null)
+            dst[offset] = word;
+        else
+            System.arraycopy(words, 0, dst, offset, words.length);
+    }
+
+    public static PackedBoard fromWords(int dimension, int blank, long[] src, int offset) {
+        if (fitsInLong(dimension))
+            return new PackedBoard(dimension, blank, src[offset], null);
+        long[] words = new long[wordCount(dimension)];
+        System.arraycopy(src, offset, words, 0, words.length);
+        return new PackedBoard(dimension, blank, 0, words);
+    }
+
+    /**
+     * Same as {@link #tileAt(int)} for an encoding kept in a plain long array.
+     */
+    static int tileAt(int dimension, long[] src, int offset, int cell) {
+        if (fitsInLong(dimension))
+            return (int) ((src[offset] >>> (cell << 2)) & 0xF) - 1;
+
+        int bits = bitsPerCell(dimension);
+        int perWord = 64/bits;
+        return (int) ((src[offset + cell/perWord] >>> ((cell%perWord)*bits)) & ((1L << bits)-1)) - 1;
+    }
+
+    /**
+     * Writes the encoding with the tile from source slid into the blank to dst.
+     */
+    static void slide(int dimension, long[] src, int srcOffset, int blank, int source,
+                      long[] dst, int dstOffset) {
+        if (fitsInLong(dimension)) {
+            long word = src[srcOffset];
+            long v = (word >>> (source << 2)) & 0xF;
+            dst[dstOffset] = (word & ~(0xFL << (source << 2))) | (v << (blank << 2));
+            return;
+        }
+
+        int count = wordCount(dimension);
+        System.arraycopy(src, srcOffset, dst, dstOffset, count);
+        int bits = bitsPerCell(dimension);
+        int perWord = 64/bits;
+        long mask = (1L << bits)-1;
+        int srcShift = (source%perWord)*bits;
+        long v = (dst[dstOffset + source/perWord] >>> srcShift) & mask;
+        dst[dstOffset + source/perWord] &= ~(mask << srcShift);
+        dst[dstOffset + blank/perWord] |= v << ((blank%perWord)*bits);
+    }
+
+    public int[] toCells() {
+        int[] cells = new int[dimension*dimension];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = tileAt(i);
+        return cells;
+    }
+
+    /**
+     * @return cell the tile comes from when moving in dir, -1 if the move is illegal
+     */
+    static int sourceCell(int blank, int dimension, Direction dir) {
+        int x = blank%dimension;
+        switch (dir) {
+            case UP:
+                return blank+dimension < dimension*dimension? blank+dimension : -1;
+            case DOWN:
+                return blank-dimension >= 0? blank-dimension : -1;
+            case LEFT:
+                return x+1 < dimension? blank+1 : -1;
+            case RIGHT:
+                return x > 0? blank-1 : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Same semantics as {@link Board#move(Direction)}.
+     * @return moved copy or null if the move is illegal
+     */
+    public PackedBoard move(Direction dir) {
+        int source = sourceCell(blank, dimension, dir);
+        if (source < 0)
+            return null;
+
+        if (words == null) {
+            long v = (word >>> (source << 2)) & 0xF;
+            long moved = (word & ~(0xFL << (source << 2))) | (v << (blank << 2));
+            return new PackedBoard(dimension, source, moved, null);
+        }
+
+        int bits = bitsPerCell(dimension);
+        int perWord = 64/bits;
+        long mask = (1L << bits)-1;
+        long[] moved = words.clone();
+        int srcShift = (source%perWord)*bits;
+        long v = (moved[source/perWord] >>> srcShift) & mask;
+        moved[source/perWord] &= ~(mask << srcShift);
+        moved[blank/perWord] |= v << ((blank%perWord)*bits);
+        return new PackedBoard(dimension, source, 0, moved);
+    }
+
+    public boolean isGoal() {
+        int last = dimension*dimension-1;
+        if (blank != last)
+            return false;
+        for (int i = 0; i < last; i++)
+            if (tileAt(i) != i)
+                return false;
+        return true;
+    }
+
+    /**
+     * @see Solvability
+     */
+    public boolean isSolvable() {
+        return words == null? Solvability.isSolvable(dimension, word) : Solvability.isSolvable(this);
+    }
+
+    // сума Манхатенських відстаней між блоками і цільовим станом
+    public int manhattan() {
+        int distance = 0;
+        for (int i = 0; i < dimension*dimension; i++) {
+            int tile = tileAt(i);
+            if (tile != -1)
+                distance += Math.abs(tile%dimension - i%dimension) + Math.abs(tile/dimension - i/dimension);
+        }
+        return distance;
+    }
+
+    /**
+     * Change of the manhattan distance when a single tile slides from one cell to another.
+     * Only that tile's term changes, so the child's distance is parent's plus this delta.
+     */
+    public static int manhattanDelta(int dimension, int tile, int from, int to) {
+        int goalX = tile%dimension;
+        int goalY = tile/dimension;
+        return Math.abs(goalX - to%dimension) + Math.abs(goalY - to/dimension)
+                - Math.abs(goalX - from%dimension) - Math.abs(goalY - from/dimension);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || o.getClass() != getClass())
+            return false;
+
+        PackedBoard another = (PackedBoard) o;
+        return dimension == another.dimension && word == another.word &&
+                Arrays.equals(words, another.words);
+    }
+
+    @Override
+    public int hashCode() {
+        long h = words == null? word : Arrays.hashCode(words);
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toCells());
+    }
+}
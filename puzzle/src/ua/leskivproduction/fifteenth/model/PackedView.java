@@ -0,0 +1,38 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Reusable {@link TileGrid} over a packed encoding stored in a plain long array,
+ * lets heuristics read arena states without materializing {@link PackedBoard}s.
+ */
+class PackedView implements TileGrid {
+    private final int dimension;
+    private long[] src;
+    private int offset;
+    private int blank;
+
+    PackedView(int dimension) {
+        this.dimension = dimension;
+    }
+
+    PackedView point(long[] src, int offset, int blank) {
+        this.src = src;
+        this.offset = offset;
+        this.blank = blank;
+        return this;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int blankIndex() {
+        return blank;
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        return PackedBoard.tileAt(dimension, src, offset, cell);
+    }
+}
@@ -0,0 +1,189 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IDA* that splits every iteration into root subtrees searched in parallel on a {@link ForkJoinPool}.
+ * All subtrees of an iteration share its bound, and no solution exists below it,
+ * so whichever worker reaches the goal first has an optimal path and the rest are stopped.
+ * Engines with the same amount of threads share one pool, its workers are daemons that
+ * retire when idle, so an engine needs no shutting down.
+ */
+public class ParallelIdaStarEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int SUBTREES_PER_THREAD = 32;
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final Heuristic heuristic;
+    private final int threads;
+    private final ForkJoinPool pool;
+
+    public ParallelIdaStarEngine(Heuristic heuristic) {
+        this(heuristic, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelIdaStarEngine(Heuristic heuristic, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("at least one thread is needed");
+        this.heuristic = heuristic;
+        this.threads = threads;
+        this.pool = POOLS.computeIfAbsent(threads, ForkJoinPool::new);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    private static class Subtree {
+        final PackedBoard state;
+        final Direction[] prefix;
+        final int estimate;
+
+        Subtree(PackedBoard state, Direction[] prefix, int estimate) {
+            this.state = state;
+            this.prefix = prefix;
+            this.estimate = estimate;
+        }
+
+        Direction lastDir() {
+            return prefix.length == 0? null : prefix[prefix.length-1];
+        }
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        int estimate = heuristic.estimate(start);
+        int bound = estimate;
+
+        while (true) {
+            control.reportBound(bound);
+            control.iterationStarted(bound);
+            AtomicInteger next = new AtomicInteger(Integer.MAX_VALUE);
+            List<Subtree> subtrees = split(new Subtree(start, new Direction[0], estimate), bound, next, control);
+
+            for (Subtree subtree : subtrees)
+                if (subtree.estimate == 0 && subtree.state.isGoal())
+                    return new SearchResult(subtree.prefix, control.expandedNodes());
+            if (control.isStopped())
+                return SearchResult.stopped(control);
+
+            AtomicBoolean found = new AtomicBoolean();
+            AtomicReference<Direction[]> solution = new AtomicReference<>();
+            List<RecursiveAction> tasks = new ArrayList<>(subtrees.size());
+            for (Subtree subtree : subtrees)
+                tasks.add(new SubtreeTask(subtree, bound, next, found, solution, control));
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+
+            if (solution.get() != null)
+                return new SearchResult(solution.get(), control.expandedNodes());
+            if (control.isStopped())
+                return SearchResult.stopped(control);
+            if (next.get() == Integer.MAX_VALUE)
+                return new SearchResult(null, control.expandedNodes());
+            control.iterationFinished(bound);
+            bound = next.get();
+        }
+    }
+
+    /**
+     * Expands the tree breadth-first until there are enough subtrees to keep every thread busy.
+     * Nodes over the bound are dropped here, their f still counts for the next bound.
+     */
+    private List<Subtree> split(Subtree root, int bound, AtomicInteger next, SearchControl control) {
+        List<Subtree> layer = new ArrayList<>();
+        layer.add(root);
+
+        for (int depth = 0; layer.size() < threads*SUBTREES_PER_THREAD && depth < bound; depth++) {
+            List<Subtree> children = new ArrayList<>(layer.size()*3);
+            int generated = 0;
+            for (Subtree node : layer) {
+                if (node.estimate == 0 && node.state.isGoal())
+                    return layer;
+
+                Direction lastDir = node.lastDir();
+                for (Direction dir : DIRECTIONS) {
+                    if (lastDir != null && dir == lastDir.opposite())
+                        continue;
+                    PackedBoard moved = node.state.move(dir);
+                    if (moved == null)
+                        continue;
+                    generated++;
+
+                    int from = moved.blankIndex();
+                    int to = node.state.blankIndex();
+                    int estimate = heuristic.update(node.estimate, moved, moved.tileAt(to), from, to);
+                    int f = depth+1 + estimate;
+                    if (f > bound) {
+                        next.accumulateAndGet(f, Math::min);
+                        continue;
+                    }
+
+                    Direction[] prefix = new Direction[depth+1];
+                    System.arraycopy(node.prefix, 0, prefix, 0, depth);
+                    prefix[depth] = dir;
+                    children.add(new Subtree(moved, prefix, estimate));
+                }
+            }
+            control.count(generated, 0);
+            if (!control.proceed(layer.size()))
+                return children;
+            layer = children;
+        }
+        return layer;
+    }
+
+    private class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Subtree subtree;
+        private final int bound;
+        private final AtomicInteger next;
+        private final AtomicBoolean found;
+        private final AtomicReference<Direction[]> solution;
+        private final SearchControl control;
+
+        SubtreeTask(Subtree subtree, int bound, AtomicInteger next, AtomicBoolean found,
+                    AtomicReference<Direction[]> solution, SearchControl control) {
+            this.subtree = subtree;
+            this.bound = bound;
+            this.next = next;
+            this.found = found;
+            this.solution = solution;
+            this.control = control;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get() || control.isStopped())
+                return;
+
+            BoundedSearch search = new BoundedSearch(heuristic);
+            search.reset(subtree.state, subtree.prefix, subtree.prefix.length, control, found);
+            int t = search.search(subtree.prefix.length, subtree.estimate, bound, subtree.lastDir());
+            search.flush();
+
+            if (t == BoundedSearch.FOUND) {
+                if (solution.compareAndSet(null, search.solution()))
+                    found.set(true);
+            } else if (!search.isStopped()) {
+                next.accumulateAndGet(t, Math::min);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Learning real-time A* (LRTA*). Every move is decided by a minimin lookahead that deepens
+ * until the per-move time runs out, then committed at once, so the first moves come
+ * long before the goal is reached. The estimate of every state left behind is raised
+ * to what the lookahead found, which keeps the search from going around in circles.
+ *
+ * Moves are never taken back, so the path is usually longer than the shortest one.
+ * Learned estimates are keyed by Zobrist hashes and forgotten between solves. Every committed move
+ * learns one, the table has room for a fixed number of them and forgets the oldest first
+ * (see {@link LearnedEstimates}); the default memory keeps the last 2^18 states, over
+ * 40 minutes of 10 ms moves.
+ */
+public class RealTimeEngine implements SolverEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int MAX_LOOKAHEAD = 32;
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final Heuristic heuristic;
+    private final long moveNanos;
+
+    private final LearnedEstimates learned;
+    private MutableBoard board;
+    private long deadline;
+    private long nodes;
+    private boolean timedOut;
+
+    /**
+     * @param moveMillis time the lookahead gets for every move
+     */
+    public RealTimeEngine(Heuristic heuristic, long moveMillis) {
+        this(heuristic, moveMillis, LearnedEstimates.DEFAULT_MEMORY);
+    }
+
+    /**
+     * @param memoryBytes room for the learned estimates, 16 bytes per state
+     */
+    public RealTimeEngine(Heuristic heuristic, long moveMillis, long memoryBytes) {
+        this.heuristic = heuristic;
+        this.moveNanos = moveMillis*1_000_000;
+        this.learned = new LearnedEstimates(memoryBytes);
+    }
+
+    @Override
+    public SearchResult solve(PackedBoard start, SearchControl control) {
+        return solve(start, control, dir -> {});
+    }
+
+    /**
+     * @param sink gets every move as soon as it is committed, on the search thread
+     * @return all the committed moves, or the progress made if the control stopped the search
+     */
+    public SearchResult solve(PackedBoard start, SearchControl control, Consumer<Direction> sink) {
+        int dimension = start.dimension();
+        if (board == null || board.dimension() != dimension)
+            board = new MutableBoard(start);
+        else
+            board.load(start);
+        learned.clear();
+
+        long hash = Zobrist.hash(start);
+        int estimate = heuristic.estimate(start);
+        int lowerBound = estimate;
+        Direction[] moves = new Direction[64];
+        int length = 0;
+        Direction lastDir = null;
+
+        while (!(estimate == 0 && board.isGoal())) {
+            deadline = System.nanoTime() + moveNanos;
+            timedOut = false;
+            nodes = 0;
+
+            Direction chosen = null;
+            int chosenValue = Integer.MAX_VALUE;
+            for (int depth = 1; depth <= MAX_LOOKAHEAD; depth++) {
+                Direction best = null;
+                int bestValue = Integer.MAX_VALUE;
+                for (Direction dir : DIRECTIONS) {
+                    int emptied = board.blankIndex();
+                    int source = PackedBoard.sourceCell(emptied, dimension, dir);
+                    if (source < 0)
+                        continue;
+                    int tile = board.slide(source);
+                    // one over the best so far, so equal children are valued exactly
+                    int alpha = bestValue == Integer.MAX_VALUE? bestValue : bestValue+1;
+                    int value = lookahead(1, heuristic.update(estimate, board, tile, source, emptied),
+                            hash ^ Zobrist.delta(dimension, tile, source, emptied), depth-1, dir, alpha);
+                    board.slide(emptied);
+
+                    // ties go to anything but stepping straight back
+                    if (value < bestValue || value == bestValue && best != null && lastDir != null &&
+                            best == lastDir.opposite()) {
+                        bestValue = value;
+                        best = dir;
+                    }
+                }
+                if (timedOut && chosen != null)
+                    break;
+                chosen = best;
+                chosenValue = bestValue;
+                // every frontier node is at least depth away, so a smaller value is the goal itself
+                if (timedOut || bestValue <= depth)
+                    break;
+            }
+
+            // the state is at least as far from the goal as its best child looked
+            learned.put(hash, Math.max(learned.get(hash, estimate), chosenValue));
+
+            int emptied = board.blankIndex();
+            int source = PackedBoard.sourceCell(emptied, dimension, chosen);
+            int tile = board.slide(source);
+            estimate = heuristic.update(estimate, board, tile, source, emptied);
+            hash ^= Zobrist.delta(dimension, tile, source, emptied);
+            lastDir = chosen;
+
+            if (length == moves.length)
+                moves = Arrays.copyOf(moves, length*2);
+            moves[length++] = chosen;
+            sink.accept(chosen);
+
+            control.count(nodes, 0);
+            if (!control.proceed(nodes))
+                return SearchResult.stopped(control);
+        }
+        control.reportBound(lowerBound);
+        return new SearchResult(SearchResult.Status.SOLVED, Arrays.copyOf(moves, length),
+                control.expandedNodes(), lowerBound);
+    }
+
+    /**
+     * Depth-limited minimin with alpha pruning.
+     * @return smallest g + learned h over the frontier, g of the goal if it is within reach
+     */
+    private int lookahead(int moves, int estimate, long hash, int depth, Direction lastDir, int alpha) {
+        if (estimate == 0 && board.isGoal())
+            return moves;
+        int f = moves + learned.get(hash, estimate);
+        if (depth == 0 || f >= alpha)
+            return f;
+        if (++nodes % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0)
+            timedOut = true;
+        if (timedOut)
+            return f;
+
+        int dimension = board.dimension();
+        int min = Integer.MAX_VALUE;
+        for (Direction dir : DIRECTIONS) {
+            if (dir == lastDir.opposite())
+                continue;
+            int emptied = board.blankIndex();
+            int source = PackedBoard.sourceCell(emptied, dimension, dir);
+            if (source < 0)
+                continue;
+            int tile = board.slide(source);
+            int value = lookahead(moves+1, heuristic.update(estimate, board, tile, source, emptied),
+                    hash ^ Zobrist.delta(dimension, tile, source, emptied), depth-1, dir, Math.min(alpha, min));
+            board.slide(emptied);
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,45 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits for a single search: wall-clock time and amount of expanded nodes.
+ * Zero means no limit.
+ */
+public final class SearchBudget {
+    public static final SearchBudget UNLIMITED = new SearchBudget(0, 0);
+
+    private final long nanos;
+    private final long expandedNodes;
+
+    private SearchBudget(long nanos, long expandedNodes) {
+        if (nanos < 0 || expandedNodes < 0)
+            throw new IllegalArgumentException("budget can't be negative");
+        this.nanos = nanos;
+        this.expandedNodes = expandedNodes;
+    }
+
+    public static SearchBudget ofMillis(long millis) {
+        return UNLIMITED.withTimeLimit(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public static SearchBudget ofNodes(long expandedNodes) {
+        return UNLIMITED.withNodeLimit(expandedNodes);
+    }
+
+    public SearchBudget withTimeLimit(long time, TimeUnit unit) {
+        return new SearchBudget(unit.toNanos(time), expandedNodes);
+    }
+
+    public SearchBudget withNodeLimit(long expandedNodes) {
+        return new SearchBudget(nanos, expandedNodes);
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public long expandedNodes() {
+        return expandedNodes;
+    }
+}
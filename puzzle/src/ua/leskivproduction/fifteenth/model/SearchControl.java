@@ -0,0 +1,157 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.SearchResult.Status;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared by an engine and whoever waits for it: carries the budget, the cancellation flag
+ * and the progress made so far. Engines report expanded nodes and the rest of their counters
+ * in batches of {@link #CHECK_INTERVAL}, so checking it costs nothing per node.
+ * Safe to use from several search threads at once.
+ */
+public class SearchControl {
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final long deadline;
+    private final long nodeLimit;
+
+    private final long startTime;
+    private final SearchListener listener;
+
+    private final AtomicLong expanded = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private volatile int peakOpen;
+    private int[] iterationBounds = new int[0];
+    private volatile Status stopReason;
+    private volatile int lowerBound;
+
+    public SearchControl(SearchBudget budget) {
+        this(budget, null);
+    }
+
+    /**
+     * @param listener told about finished iterations, may be null
+     */
+    public SearchControl(SearchBudget budget, SearchListener listener) {
+        this.startTime = System.nanoTime();
+        this.deadline = budget.nanos() == 0? 0 : startTime+budget.nanos();
+        this.nodeLimit = budget.expandedNodes();
+        this.listener = listener;
+    }
+
+    public static SearchControl unlimited() {
+        return new SearchControl(SearchBudget.UNLIMITED);
+    }
+
+    /**
+     * Asks the search to stop, it returns what it has found so far.
+     */
+    public void cancel() {
+        stop(Status.CANCELLED);
+    }
+
+    private void stop(Status reason) {
+        if (stopReason == null)
+            stopReason = reason;
+    }
+
+    public boolean isStopped() {
+        return stopReason != null;
+    }
+
+    /**
+     * @return why the search was cut short, null if it wasn't
+     */
+    public Status stopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Counts newly expanded nodes and checks every limit.
+     * @return false once the search has to stop
+     */
+    public boolean proceed(long newlyExpanded) {
+        long total = expanded.addAndGet(newlyExpanded);
+        if (stopReason != null)
+            return false;
+        if (Thread.currentThread().isInterrupted())
+            stop(Status.CANCELLED);
+        else if (nodeLimit != 0 && total >= nodeLimit)
+            stop(Status.NODE_LIMIT);
+        else if (deadline != 0 && System.nanoTime()-deadline > 0)
+            stop(Status.TIME_LIMIT);
+        return stopReason == null;
+    }
+
+    /**
+     * Counts nodes left over from the last batch without checking limits.
+     */
+    public void record(long newlyExpanded) {
+        expanded.addAndGet(newlyExpanded);
+    }
+
+    public long expandedNodes() {
+        return expanded.get();
+    }
+
+    /**
+     * @param newlyGenerated children made since the last call
+     * @param newDuplicates children dropped because their state was already reached as cheaply
+     */
+    public void count(long newlyGenerated, long newDuplicates) {
+        generated.addAndGet(newlyGenerated);
+        duplicates.addAndGet(newDuplicates);
+    }
+
+    public void reportOpen(int size) {
+        if (size > peakOpen)
+            peakOpen = size;
+    }
+
+    /**
+     * Called by iterative deepening engines before an iteration with the given bound.
+     */
+    public void iterationStarted(int bound) {
+        if (listener != null)
+            listener.iterationStarted(bound);
+    }
+
+    /**
+     * Called by iterative deepening engines once an iteration with the given bound is over.
+     */
+    public void iterationFinished(int bound) {
+        synchronized (this) {
+            iterationBounds = Arrays.copyOf(iterationBounds, iterationBounds.length+1);
+            iterationBounds[iterationBounds.length-1] = bound;
+        }
+        if (listener != null)
+            listener.iterationFinished(bound, stats());
+    }
+
+    /**
+     * @return counters so far, engines flush them every {@link #CHECK_INTERVAL} nodes
+     */
+    public SearchStats stats() {
+        int[] bounds;
+        synchronized (this) {
+            bounds = iterationBounds;
+        }
+        return new SearchStats(expanded.get(), generated.get(), duplicates.get(), peakOpen,
+                System.nanoTime()-startTime, bounds);
+    }
+
+    /**
+     * @param bound proven lower bound on the solution length
+     */
+    public void reportBound(int bound) {
+        if (bound > lowerBound)
+            lowerBound = bound;
+    }
+
+    public int lowerBound() {
+        return lowerBound;
+    }
+}
@@ -0,0 +1,37 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Gets told how searches go. Called on the search thread, so it should be quick.
+ */
+public interface SearchListener {
+    /**
+     * Parts of solving timed on their own: getting the heuristic's tables ready and the search itself.
+     */
+    enum Phase {
+        HEURISTIC, SEARCH
+    }
+
+    /**
+     * Called on the thread that runs the phase, phases of a thread are finished in reverse order.
+     */
+    default void phaseStarted(Phase phase) {
+    }
+
+    default void phaseFinished(Phase phase, long elapsedNanos) {
+    }
+
+    /**
+     * An iteration of an iterative deepening engine with the given bound is about to start.
+     */
+    default void iterationStarted(int bound) {
+    }
+
+    /**
+     * An iteration of an iterative deepening engine came out without a solution.
+     */
+    default void iterationFinished(int bound, SearchStats stats) {
+    }
+
+    default void searchFinished(int dimension, SearchResult result, SearchStats stats) {
+    }
+}
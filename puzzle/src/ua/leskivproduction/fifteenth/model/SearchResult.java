@@ -0,0 +1,57 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+public class SearchResult {
+    public enum Status {SOLVED, UNSOLVABLE, CANCELLED, TIME_LIMIT, NODE_LIMIT}
+
+    private final Status status;
+    private final Direction[] moves;
+    private final long expandedNodes;
+    private final int lowerBound;
+
+    public SearchResult(Direction[] moves, long expandedNodes) {
+        this(moves != null? Status.SOLVED : Status.UNSOLVABLE, moves, expandedNodes,
+                moves != null? moves.length : 0);
+    }
+
+    public SearchResult(Status status, Direction[] moves, long expandedNodes, int lowerBound) {
+        this.status = status;
+        this.moves = moves;
+        this.expandedNodes = expandedNodes;
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Result of a search that was cut short.
+     */
+    static SearchResult stopped(SearchControl control) {
+        return new SearchResult(control.stopReason(), null, control.expandedNodes(), control.lowerBound());
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /**
+     * @return moves leading to the goal, null if none were found
+     */
+    public Direction[] moves() {
+        return moves;
+    }
+
+    public boolean isSolved() {
+        return moves != null;
+    }
+
+    public long expandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * @return length no solution can be shorter than, the best bound reached if the search was cut short
+     */
+    public int lowerBound() {
+        return lowerBound;
+    }
+}
@@ -0,0 +1,69 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.util.Arrays;
+
+/**
+ * Counters of a single search at some moment.
+ */
+public final class SearchStats {
+    private final long expandedNodes;
+    private final long generatedNodes;
+    private final long duplicates;
+    private final int peakOpen;
+    private final long elapsedNanos;
+    private final int[] iterationBounds;
+
+    SearchStats(long expandedNodes, long generatedNodes, long duplicates, int peakOpen,
+                long elapsedNanos, int[] iterationBounds) {
+        this.expandedNodes = expandedNodes;
+        this.generatedNodes = generatedNodes;
+        this.duplicates = duplicates;
+        this.peakOpen = peakOpen;
+        this.elapsedNanos = elapsedNanos;
+        this.iterationBounds = iterationBounds;
+    }
+
+    public long expandedNodes() {
+        return expandedNodes;
+    }
+
+    public long generatedNodes() {
+        return generatedNodes;
+    }
+
+    /**
+     * @return children dropped because their state was already reached at least as cheaply
+     */
+    public long duplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return largest open list seen, 0 for engines without one
+     */
+    public int peakOpen() {
+        return peakOpen;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double nodesPerSecond() {
+        return elapsedNanos == 0? 0 : expandedNodes*1e9/elapsedNanos;
+    }
+
+    /**
+     * @return bounds of the finished iterations of iterative deepening engines, in order
+     */
+    public int[] iterationBounds() {
+        return iterationBounds.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d expanded, %d generated, %d duplicates, peak open %d, %.0f nodes/s, bounds %s",
+                expandedNodes, generatedNodes, duplicates, peakOpen, nodesPerSecond(),
+                Arrays.toString(iterationBounds));
+    }
+}
@@ -0,0 +1,207 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe LRU cache of solutions.
+ * A board and its transpose about the main diagonal (with tiles renamed after
+ * the cells they belong to) are solved by the same moves with UP/LEFT and DOWN/RIGHT
+ * swapped, so both are stored under one canonical key, the smaller of the two.
+ * Entries are spread over independently locked segments, each evicting its least recently used entry.
+ * Every solution keeps the lower bound its search proved, solutions of inexact engines aren't passed off as optimal.
+ */
+public class SolutionCache {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Cached {
+        final MoveSequence moves;
+        final int lowerBound;
+
+        Cached(MoveSequence moves, int lowerBound) {
+            this.moves = moves;
+            this.lowerBound = lowerBound;
+        }
+    }
+
+    private class Segment extends LinkedHashMap<PackedBoard, Cached> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PackedBoard, Cached> eldest) {
+            if (size() <= capacity)
+                return false;
+            evictions.increment();
+            return true;
+        }
+    }
+
+    public SolutionCache(int capacity) {
+        if (capacity < SEGMENTS)
+            throw new IllegalArgumentException("capacity must be at least "+SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++)
+            segments[i] = new Segment(capacity/SEGMENTS);
+    }
+
+    /**
+     * @return cached solution of the board with the lower bound it was stored with, null if there's none
+     */
+    public SearchResult get(PackedBoard board) {
+        PackedBoard transposed = transpose(board);
+        boolean flipped = compare(transposed, board) < 0;
+        PackedBoard key = flipped? transposed : board;
+
+        Segment segment = segment(key);
+        Cached entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        Direction[] moves = (flipped? entry.moves.transposed() : entry.moves).toArray();
+        return new SearchResult(SearchResult.Status.SOLVED, moves, 0, entry.lowerBound);
+    }
+
+    /**
+     * @param lowerBound what the search proved about the solution length, the length itself if it is optimal
+     */
+    public void put(PackedBoard board, Direction[] moves, int lowerBound) {
+        PackedBoard transposed = transpose(board);
+        boolean flipped = compare(transposed, board) < 0;
+        PackedBoard key = flipped? transposed : board;
+        MoveSequence sequence = MoveSequence.of(moves);
+
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, new Cached(flipped? sequence.transposed() : sequence, lowerBound));
+        }
+    }
+
+    private Segment segment(PackedBoard key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS-1)];
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes every entry as a line of the board's numbers (0 for the blank), its moves and their lower bound.
+     */
+    public void save(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<PackedBoard, Cached> entry : segment.entrySet()) {
+                    StringBuilder line = new StringBuilder();
+                    for (int tile : entry.getKey().toCells())
+                        line.append(tile+1).append(' ');
+                    line.append('\t').append(entry.getValue().moves).append('\t').append(entry.getValue().lowerBound);
+                    lines.add(line.toString());
+                }
+            }
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName()+".tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Warms the cache from a file written by {@link #save}.
+     * Lines without a lower bound get the board's Manhattan distance.
+     * @return amount of entries read
+     */
+    public int load(Path file) throws IOException {
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                int tab = line.indexOf('\t');
+                if (tab < 0)
+                    continue;
+                PackedBoard board = BatchSolver.parse(line.substring(0, tab));
+                int boundTab = line.indexOf('\t', tab+1);
+                if (boundTab < 0)
+                    put(board, Moves.parse(line.substring(tab+1)), board.manhattan());
+                else
+                    put(board, Moves.parse(line.substring(tab+1, boundTab)),
+                            Integer.parseInt(line.substring(boundTab+1).trim()));
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Mirror image about the main diagonal, every tile renamed after its mirrored goal cell.
+     */
+    static PackedBoard transpose(PackedBoard board) {
+        int dimension = board.dimension();
+        int[] cells = board.toCells();
+        int[] mirrored = new int[cells.length];
+        for (int row = 0; row < dimension; row++) {
+            for (int col = 0; col < dimension; col++) {
+                int tile = cells[row*dimension + col];
+                mirrored[col*dimension + row] = tile == -1? -1 : (tile%dimension)*dimension + tile/dimension;
+            }
+        }
+        return PackedBoard.of(dimension, mirrored);
+    }
+
+    private static int compare(PackedBoard a, PackedBoard b) {
+        int cells = a.dimension()*a.dimension();
+        for (int i = 0; i < cells; i++) {
+            int c = Integer.compare(a.tileAt(i), b.tileAt(i));
+            if (c != 0)
+                return c;
+        }
+        return 0;
+    }
+}
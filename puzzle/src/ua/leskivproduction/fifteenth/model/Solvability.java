@@ -0,0 +1,137 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Solvability by permutation parity. Taking the blank as tile n*n-1, a slide swaps it with
+ * a tile and moves it by one cell, so the parity of the permutation and the parity of
+ * the blank's distance from its goal cell change together. A board is solvable
+ * exactly when the two are equal. Parity is counted through cycles in O(n),
+ * boards up to 8x8 need no allocation.
+ */
+public final class Solvability {
+    private Solvability() {
+    }
+
+    /**
+     * @return false also for boards that aren't a permutation (missing, repeated or extra tiles)
+     */
+    public static boolean isSolvable(TileGrid board) {
+        int dimension = board.dimension();
+        int cells = dimension*dimension;
+        if (cells <= 64) {
+            long seen = 0;
+            int blank = -1;
+            for (int cell = 0; cell < cells; cell++) {
+                int value = value(board.tileAt(cell), cells);
+                if (value < 0 || (seen >>> value & 1) != 0)
+                    return false;
+                seen |= 1L << value;
+                if (value == cells-1)
+                    blank = cell;
+            }
+
+            long visited = 0;
+            int cycles = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if ((visited >>> cell & 1) != 0)
+                    continue;
+                cycles++;
+                for (int i = cell; (visited >>> i & 1) == 0; i = value(board.tileAt(i), cells))
+                    visited |= 1L << i;
+            }
+            return matches(dimension, cells-cycles, blank);
+        }
+
+        long[] seen = new long[(cells+63)/64];
+        int blank = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            int value = value(board.tileAt(cell), cells);
+            if (value < 0 || (seen[value >>> 6] >>> value & 1) != 0)
+                return false;
+            seen[value >>> 6] |= 1L << value;
+            if (value == cells-1)
+                blank = cell;
+        }
+
+        long[] visited = new long[seen.length];
+        int cycles = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if ((visited[cell >>> 6] >>> cell & 1) != 0)
+                continue;
+            cycles++;
+            for (int i = cell; (visited[i >>> 6] >>> i & 1) == 0; i = value(board.tileAt(i), cells))
+                visited[i >>> 6] |= 1L << i;
+        }
+        return matches(dimension, cells-cycles, blank);
+    }
+
+    /**
+     * Checks count packed states kept one after another, see {@link PackedBoard#writeWords}.
+     * @param solvable receives the answer for every state
+     * @return amount of solvable states
+     */
+    public static int check(int dimension, long[] states, int count, boolean[] solvable) {
+        int stride = PackedBoard.wordCount(dimension);
+        int found = 0;
+        if (PackedBoard.fitsInLong(dimension)) {
+            for (int i = 0; i < count; i++)
+                if (solvable[i] = isSolvable(dimension, states[i]))
+                    found++;
+            return found;
+        }
+
+        PackedView view = new PackedView(dimension);
+        for (int i = 0; i < count; i++) {
+            int offset = i*stride;
+            int blank = 0;
+            while (PackedBoard.tileAt(dimension, states, offset, blank) != -1)
+                blank++;
+            if (solvable[i] = isSolvable(view.point(states, offset, blank)))
+                found++;
+        }
+        return found;
+    }
+
+    /**
+     * Same as {@link #isSolvable(TileGrid)} for a board of up to 4x4 packed into a single long.
+     */
+    static boolean isSolvable(int dimension, long state) {
+        int cells = dimension*dimension;
+        // the packing keeps tile+1, 0 for the blank, so it already is a value of cells
+        long seen = 0;
+        int blank = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            int stored = (int) (state >>> (cell << 2)) & 0xF;
+            int value = stored == 0? cells-1 : stored-1;
+            if (value >= cells || (seen >>> value & 1) != 0)
+                return false;
+            seen |= 1L << value;
+            if (stored == 0)
+                blank = cell;
+        }
+
+        int visited = 0;
+        int cycles = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if ((visited >>> cell & 1) != 0)
+                continue;
+            cycles++;
+            for (int i = cell; (visited >>> i & 1) == 0; ) {
+                visited |= 1 << i;
+                int stored = (int) (state >>> (i << 2)) & 0xF;
+                i = stored == 0? cells-1 : stored-1;
+            }
+        }
+        return matches(dimension, cells-cycles, blank);
+    }
+
+    private static int value(int tile, int cells) {
+        if (tile == -1)
+            return cells-1;
+        return tile >= 0 && tile < cells-1? tile : -1;
+    }
+
+    private static boolean matches(int dimension, int transpositions, int blank) {
+        int blankDistance = (dimension-1 - blank%dimension) + (dimension-1 - blank/dimension);
+        return ((transpositions ^ blankDistance) & 1) == 0;
+    }
+}
@@ -0,0 +1,105 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.SearchResult.Status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Search running in the background. Cancelling is cooperative: the engine notices it
+ * within a few thousand nodes and the future still completes normally, with a result
+ * that tells why it stopped and how far it got.
+ */
+public class SolveHandle {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SearchControl control;
+    private final CompletableFuture<SearchResult> future;
+    private final long startTime;
+    private volatile long finishTime;
+
+    private SolveHandle(PackedBoard start, SolverEngine engine, SearchBudget budget,
+                        SolutionCache cache, Executor executor) {
+        this.control = new SearchControl(budget, SolverMetrics.get());
+        this.startTime = System.nanoTime();
+        this.future = CompletableFuture.supplyAsync(() -> {
+            if (!start.isSolvable())
+                return new SearchResult(Status.UNSOLVABLE, null, 0, 0);
+            if (cache != null) {
+                SearchResult cached = cache.get(start);
+                if (cached != null)
+                    return cached;
+            }
+            SearchResult result = SolverMetrics.get().solve(engine, start, control);
+            if (cache != null && result.status() == Status.SOLVED)
+                cache.put(start, result.moves(), result.lowerBound());
+            return result;
+        }, executor);
+        future.whenComplete((result, error) -> finishTime = System.nanoTime());
+    }
+
+    public static SolveHandle start(PackedBoard start, SolverEngine engine, SearchBudget budget) {
+        return start(start, engine, budget, EXECUTOR);
+    }
+
+    public static SolveHandle start(PackedBoard start, SolverEngine engine, SearchBudget budget, Executor executor) {
+        return new SolveHandle(start, engine, budget, null, executor);
+    }
+
+    /**
+     * Answers from the cache when it already knows the board, solved boards are added to it.
+     */
+    public static SolveHandle start(PackedBoard start, SolverEngine engine, SearchBudget budget, SolutionCache cache) {
+        return new SolveHandle(start, engine, budget, cache, EXECUTOR);
+    }
+
+    public CompletableFuture<SearchResult> future() {
+        return future;
+    }
+
+    public void cancel() {
+        control.cancel();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Waits for the search to finish or stop.
+     */
+    public SearchResult join() {
+        return future.join();
+    }
+
+    /**
+     * @return nodes expanded so far, updated while the search runs
+     */
+    public long expandedNodes() {
+        return control.expandedNodes();
+    }
+
+    /**
+     * @return best lower bound on the solution length proven so far
+     */
+    public int lowerBound() {
+        return control.lowerBound();
+    }
+
+    /**
+     * @return counters of the search, updated while it runs
+     */
+    public SearchStats stats() {
+        return control.stats();
+    }
+
+    public long elapsedNanos() {
+        return (isDone() && finishTime != 0? finishTime : System.nanoTime()) - startTime;
+    }
+}
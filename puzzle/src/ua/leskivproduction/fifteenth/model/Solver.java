@@ -0,0 +1,301 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.LinearConflictHeuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.PatternDatabaseBuilder;
+import ua.leskivproduction.fifteenth.model.heuristic.PatternDatabaseHeuristic;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class Solver {
+    private final static float SOLVE_ANIMATION_TIME = 10;
+    private final static float STREAM_ANIMATION_INTERVAL = 0.1f;
+
+    private final static double ANYTIME_INITIAL_EPSILON = 2;
+    private final static double ANYTIME_EPSILON_STEP = 0.5;
+    private final static long ANYTIME_LATENCY_MILLIS = 3000;
+    private final static long REAL_TIME_MOVE_MILLIS = 10;
+    // from this size on the default engine builds a solution instead of searching for one
+    public final static int CONSTRUCTIVE_DIMENSION = 6;
+
+    private PackedBoard start;
+    private MoveSequence solution;
+    private boolean solvable;
+    private volatile boolean solving = true;
+    // moves a real-time engine has committed to and the animation hasn't shown yet
+    private final Queue<Board.Direction> streamed;
+
+    private float solvingAnimationTime;
+    private int animationStep;
+
+    private float solveAnimInterval;
+
+    /**
+     * @return time in s
+     */
+    public float getSolutionFoundingTime() {
+        return handle.elapsedNanos() / 1e9f;
+    }
+
+    public boolean isSolving() {
+        return solving;
+    }
+
+    /**
+     * @return true if moves can be animated before the search is over
+     */
+    public boolean isStreaming() {
+        return streamed != null;
+    }
+
+    /**
+     * @return true if animation has finished
+     */
+    public boolean performAnimationSteps(Board board, float deltaTime) {
+        if (streamed != null)
+            return performStreamedSteps(board, deltaTime);
+        if (!solving && solution != null && animationStep < solution.length()) {
+            solvingAnimationTime += deltaTime;
+            int performedByNow = Math.min(solution.length(), (int) (solvingAnimationTime / solveAnimInterval));
+            solution.replay(board, animationStep, performedByNow);
+            animationStep = performedByNow;
+            return animationFinished();
+        }
+        return true;
+    }
+
+    private boolean performStreamedSteps(Board board, float deltaTime) {
+        solvingAnimationTime += deltaTime;
+        int performedByNow = (int) (solvingAnimationTime / STREAM_ANIMATION_INTERVAL);
+        Board.Direction dir;
+        while (animationStep < performedByNow && (dir = streamed.poll()) != null) {
+            board.move(dir);
+            animationStep++;
+        }
+        // time spent waiting for the search doesn't turn into a burst of moves later
+        solvingAnimationTime = Math.min(solvingAnimationTime, (animationStep+1)*STREAM_ANIMATION_INTERVAL);
+        return animationFinished();
+    }
+
+    public boolean animationFinished() {
+        if (streamed != null)
+            return !solving && streamed.isEmpty();
+        return solution == null || animationStep >= solution.length();
+    }
+
+    public int getAnimationStep() {
+        return animationStep;
+    }
+
+
+    private static final SolutionCache SHARED_CACHE = new SolutionCache(1 << 14);
+
+    private final SolveHandle handle;
+
+    // знайти рішення для дошки initial
+    public Solver(Board initial) {
+        this(initial, defaultEngine(initial.getDimension()), defaultBudget(initial.getDimension()), SHARED_CACHE);
+    }
+
+    /**
+     * Default engine for the board's size, driven by the given heuristic.
+     */
+    public Solver(Board initial, Heuristic heuristic) {
+        this(initial, defaultEngine(initial.getDimension(), heuristic), defaultBudget(initial.getDimension()),
+                SHARED_CACHE);
+    }
+
+    /**
+     * Searches on the given amount of threads, one means the default single-threaded engine.
+     */
+    public Solver(Board initial, int threads) {
+        this(initial, threads > 1?
+                new ParallelIdaStarEngine(defaultHeuristic(initial.getDimension()), threads) :
+                defaultEngine(initial.getDimension()));
+    }
+
+    /**
+     * Given engine with the default budget and the shared cache, whose entries keep
+     * the lower bound they were proven with, so suboptimal engines may share it.
+     */
+    public Solver(Board initial, SolverEngine engine) {
+        this(initial, engine, defaultBudget(initial.getDimension()), SHARED_CACHE);
+    }
+
+    /**
+     * Search stops once the budget is spent, {@link #getHandle()} then tells how far it got.
+     */
+    public Solver(Board initial, SolverEngine engine, SearchBudget budget) {
+        this(initial, engine, budget, null);
+    }
+
+    /**
+     * Looks the board up in the cache before searching, null means no cache.
+     */
+    public Solver(Board initial, SolverEngine engine, SearchBudget budget, SolutionCache cache) {
+        this(initial, engine, budget, cache, null);
+    }
+
+    /**
+     * Real-time solve: the moves are there for {@link #performAnimationSteps} as soon as
+     * the engine commits to them, long before it reaches the goal.
+     */
+    public Solver(Board initial, RealTimeEngine engine, SearchBudget budget) {
+        this(initial, budget, engine, new ConcurrentLinkedQueue<>());
+    }
+
+    private Solver(Board initial, SearchBudget budget, RealTimeEngine engine, Queue<Board.Direction> streamed) {
+        this(initial, (start, control) -> engine.solve(start, control, streamed::add), budget, null, streamed);
+    }
+
+    private Solver(Board initial, SolverEngine engine, SearchBudget budget, SolutionCache cache,
+                   Queue<Board.Direction> streamed) {
+        this.streamed = streamed;
+        handle = SolveHandle.start(initial.pack(), engine, budget, cache);
+        handle.future().whenComplete((result, error) -> {
+            if (error != null)
+                error.printStackTrace();
+            if (result != null) {
+                solvable = result.status() != SearchResult.Status.UNSOLVABLE;
+                if (result.isSolved())
+                    setSolution(initial.pack(), result.moves());
+            }
+            solving = false;
+        });
+    }
+
+    private void setSolution(PackedBoard state, Board.Direction[] moves) {
+        start = state;
+        solution = MoveSequence.of(moves);
+
+        solveAnimInterval = SOLVE_ANIMATION_TIME / solution.length();
+        solveAnimInterval = Math.max(0.1f, Math.min(0.3f, solveAnimInterval));
+    }
+
+    /**
+     * Cache shared by solvers not given a budget of their own.
+     */
+    public static SolutionCache sharedCache() {
+        return SHARED_CACHE;
+    }
+
+    public SolveHandle getHandle() {
+        return handle;
+    }
+
+    /**
+     * A* keeps every generated node, so it is only used while the state space is small.
+     * 4x4 boards use pattern databases when they were generated beforehand
+     * (see {@link PatternDatabaseBuilder}).
+     * Optimal solutions of bigger boards are out of reach, they get ARA*, which
+     * answers within {@link #defaultBudget(int)} and reports how far from the optimum it is.
+     * Even that runs out of memory on big boards, from {@link #CONSTRUCTIVE_DIMENSION} on they
+     * are put together row by row by {@link ConstructiveEngine}.
+     */
+    public static SolverEngine defaultEngine(int dimension) {
+        return defaultEngine(dimension, defaultHeuristic(dimension));
+    }
+
+    public static SolverEngine defaultEngine(int dimension, Heuristic heuristic) {
+        if (dimension <= 3)
+            return new AStarEngine(heuristic);
+        if (dimension == 4)
+            return tabledIdaStar(heuristic);
+        if (dimension >= CONSTRUCTIVE_DIMENSION)
+            return new ConstructiveEngine();
+        return new AraStarEngine(heuristic, ANYTIME_INITIAL_EPSILON, ANYTIME_EPSILON_STEP);
+    }
+
+    // transposition tables not in use by a solve right now, at most one per solve ever run at the same time
+    private static final Queue<TranspositionTable> SPARE_TABLES = new ConcurrentLinkedQueue<>();
+
+    /**
+     * IDA* that borrows a 4x4 transposition table for every solve instead of allocating its own.
+     * Bounds left in a table by earlier solves stay true, the g values expire with their generation.
+     */
+    private static SolverEngine tabledIdaStar(Heuristic heuristic) {
+        return (start, control) -> {
+            TranspositionTable table = SPARE_TABLES.poll();
+            if (table == null)
+                table = new TranspositionTable(4);
+            try {
+                return new IdaStarEngine(heuristic, table).solve(start, control);
+            } finally {
+                SPARE_TABLES.offer(table);
+            }
+        };
+    }
+
+    /**
+     * LRTA* that gets about a frame's time for every move.
+     */
+    public static RealTimeEngine realTimeEngine(int dimension) {
+        return new RealTimeEngine(defaultHeuristic(dimension), REAL_TIME_MOVE_MILLIS);
+    }
+
+    /**
+     * @return no limit for boards solved optimally, a fixed latency for the rest
+     */
+    public static SearchBudget defaultBudget(int dimension) {
+        return dimension <= 4? SearchBudget.UNLIMITED : SearchBudget.ofMillis(ANYTIME_LATENCY_MILLIS);
+    }
+
+    public static Heuristic defaultHeuristic(int dimension) {
+        if (dimension <= 3)
+            return new ManhattanHeuristic();
+
+        Heuristic heuristic = dimension == 4? patternDatabases() : null;
+        return heuristic != null? heuristic : new LinearConflictHeuristic();
+    }
+
+    private static volatile Heuristic patternDatabases;
+
+    private static Heuristic patternDatabases() {
+        if (patternDatabases == null)
+            patternDatabases = PatternDatabaseHeuristic.loadCached(
+                    PatternDatabaseBuilder.defaultDirectory(), 4, "6-6-3");
+        return patternDatabases;
+    }
+
+    /**
+     * Stops the search cooperatively, it gives up within a few thousand nodes.
+     */
+    public void terminate() {
+        System.out.println("Terminating..");
+        handle.cancel();
+    }
+
+    // чи має початкова дошка розв’язок
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    // мінімальна кількість кроків для вирішення дошки, -1 якщо немає рішення
+    public int moves() {
+        if (solution != null)
+            return solution.length();
+        return -1;
+    }
+
+    // ходи найкоротшого рішення; null якщо немає рішення
+    public MoveSequence getMoves() {
+        return solution;
+    }
+
+    /**
+     * Boards along the solution, made on every call; null if there's no solution.
+     * {@link #getMoves()} is much smaller for long solutions.
+     */
+    public Board[] solution() {
+        if (solution == null)
+            return null;
+        Board[] boards = new Board[solution.length()];
+        int i = 0;
+        for (Board board : solution.boards(start))
+            boards[i++] = board;
+        return boards;
+    }
+
+}
@@ -0,0 +1,21 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Search algorithm used by {@link Solver}.
+ * Engines keep working buffers between calls, so an instance
+ * must not be shared between threads.
+ */
+public interface SolverEngine {
+
+    /**
+     * @param start solvable board
+     * @param control budget and cancellation, checked while expanding nodes
+     * @return shortest sequence of moves leading from start to the goal,
+     * or the progress made if the control stopped the search
+     */
+    SearchResult solve(PackedBoard start, SearchControl control);
+
+    default SearchResult solve(PackedBoard start) {
+        return solve(start, SearchControl.unlimited());
+    }
+}
@@ -0,0 +1,205 @@
+package ua.leskivproduction.fifteenth.model;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals over every search run through {@link #solve}, which is how {@link SolveHandle}, the batch solver
+ * and the server search, and over the phases they go through; handed on to the registered listeners,
+ * to JMX once {@link #registerMBean()} is called and to Flight Recorder when the JVM has it.
+ * Nothing here runs per node: engines flush their counters in batches and listeners hear
+ * only about finished iterations and searches.
+ */
+public final class SolverMetrics implements SearchListener, SolverMetricsMBean {
+    public static final String OBJECT_NAME = "ua.leskivproduction.fifteenth:type=SolverMetrics";
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+    private final SearchListener flightRecorder = flightRecorder();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder expanded = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+    private volatile int peakOpen;
+    private volatile SearchStats last;
+
+    private SolverMetrics() {
+        for (int i = 0; i < phaseNanos.length; i++)
+            phaseNanos[i] = new LongAdder();
+    }
+
+    /**
+     * @return null when the JVM has no Flight Recorder or the events weren't built (JDK 8 builds)
+     */
+    private static SearchListener flightRecorder() {
+        try {
+            Class.forName("jdk.jfr.Event", false, SolverMetrics.class.getClassLoader());
+            return (SearchListener) Class.forName(SolverMetrics.class.getPackage().getName()+".JfrEvents")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    public static SolverMetrics get() {
+        return INSTANCE;
+    }
+
+    public void addListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Registers with the platform MBean server, calling it again does nothing.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name))
+                server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs the engine as the {@link Phase#SEARCH} phase and reports the search once it is over.
+     * @param control should have been made with this as its listener, so iterations are reported too
+     */
+    public SearchResult solve(SolverEngine engine, PackedBoard start, SearchControl control) {
+        long time = System.nanoTime();
+        phaseStarted(Phase.SEARCH);
+        SearchResult result;
+        try {
+            result = engine.solve(start, control);
+        } finally {
+            phaseFinished(Phase.SEARCH, System.nanoTime()-time);
+        }
+        searchFinished(start.dimension(), result, control.stats());
+        return result;
+    }
+
+    @Override
+    public void phaseStarted(Phase phase) {
+        if (flightRecorder != null)
+            flightRecorder.phaseStarted(phase);
+        for (SearchListener listener : listeners)
+            listener.phaseStarted(phase);
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long elapsedNanos) {
+        phaseNanos[phase.ordinal()].add(elapsedNanos);
+        if (flightRecorder != null)
+            flightRecorder.phaseFinished(phase, elapsedNanos);
+        for (SearchListener listener : listeners)
+            listener.phaseFinished(phase, elapsedNanos);
+    }
+
+    @Override
+    public void iterationStarted(int bound) {
+        if (flightRecorder != null)
+            flightRecorder.iterationStarted(bound);
+        for (SearchListener listener : listeners)
+            listener.iterationStarted(bound);
+    }
+
+    @Override
+    public void iterationFinished(int bound, SearchStats stats) {
+        if (flightRecorder != null)
+            flightRecorder.iterationFinished(bound, stats);
+        for (SearchListener listener : listeners)
+            listener.iterationFinished(bound, stats);
+    }
+
+    @Override
+    public void searchFinished(int dimension, SearchResult result, SearchStats stats) {
+        searches.increment();
+        if (result.status() == SearchResult.Status.SOLVED)
+            solved.increment();
+        expanded.add(stats.expandedNodes());
+        generated.add(stats.generatedNodes());
+        duplicates.add(stats.duplicates());
+        if (stats.peakOpen() > peakOpen)
+            peakOpen = stats.peakOpen();
+        last = stats;
+
+        if (flightRecorder != null)
+            flightRecorder.searchFinished(dimension, result, stats);
+        for (SearchListener listener : listeners)
+            listener.searchFinished(dimension, result, stats);
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    @Override
+    public long getExpandedNodes() {
+        return expanded.sum();
+    }
+
+    @Override
+    public long getGeneratedNodes() {
+        return generated.sum();
+    }
+
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public int getPeakOpen() {
+        return peakOpen;
+    }
+
+    @Override
+    public long getHeuristicMillis() {
+        return phaseNanos[Phase.HEURISTIC.ordinal()].sum()/1_000_000;
+    }
+
+    @Override
+    public long getSearchMillis() {
+        return phaseNanos[Phase.SEARCH.ordinal()].sum()/1_000_000;
+    }
+
+    @Override
+    public double getLastNodesPerSecond() {
+        SearchStats stats = last;
+        return stats == null? 0 : stats.nodesPerSecond();
+    }
+
+    @Override
+    public long getLastSearchMillis() {
+        SearchStats stats = last;
+        return stats == null? 0 : stats.elapsedNanos()/1_000_000;
+    }
+
+    @Override
+    public String getLastIterationBounds() {
+        SearchStats stats = last;
+        return stats == null? "[]" : Arrays.toString(stats.iterationBounds());
+    }
+}
@@ -0,0 +1,34 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * JMX view of {@link SolverMetrics}.
+ */
+public interface SolverMetricsMBean {
+    long getSearches();
+
+    long getSolved();
+
+    long getExpandedNodes();
+
+    long getGeneratedNodes();
+
+    long getDuplicates();
+
+    int getPeakOpen();
+
+    /**
+     * @return time spent loading and building heuristic tables
+     */
+    long getHeuristicMillis();
+
+    /**
+     * @return time spent searching, summed over every search thread
+     */
+    long getSearchMillis();
+
+    double getLastNodesPerSecond();
+
+    long getLastSearchMillis();
+
+    String getLastIterationBounds();
+}
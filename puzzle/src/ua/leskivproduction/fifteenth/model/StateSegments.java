@@ -0,0 +1,220 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed states streamed to and from memory-mapped segment files.
+ * A segment is a 16 byte header (magic, words per state, state count)
+ * followed by the states, a sequence of segments is read as one stream.
+ */
+class StateSegments {
+    private static final int MAGIC = 0x53454731;
+    private static final int HEADER = 16;
+
+    private StateSegments() {
+    }
+
+    /**
+     * Lexicographic order of states, the one every sorted segment is kept in.
+     */
+    static int compare(long[] a, int aOffset, long[] b, int bOffset, int stride) {
+        for (int w = 0; w < stride; w++) {
+            int c = Long.compare(a[aOffset+w], b[bOffset+w]);
+            if (c != 0)
+                return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts count states kept one after another in buffer and drops duplicates.
+     * @return amount of distinct states left at the start of buffer
+     */
+    static int sortUnique(long[] buffer, int count, int stride) {
+        if (stride == 1)
+            java.util.Arrays.sort(buffer, 0, count);
+        else
+            quickSort(buffer, 0, count-1, stride, new long[stride]);
+
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique > 0 && compare(buffer, (unique-1)*stride, buffer, i*stride, stride) == 0)
+                continue;
+            if (unique != i)
+                System.arraycopy(buffer, i*stride, buffer, unique*stride, stride);
+            unique++;
+        }
+        return unique;
+    }
+
+    private static void quickSort(long[] buffer, int low, int high, int stride, long[] pivot) {
+        while (low < high) {
+            System.arraycopy(buffer, ((low+high) >>> 1)*stride, pivot, 0, stride);
+            int i = low, j = high;
+            while (i <= j) {
+                while (compare(buffer, i*stride, pivot, 0, stride) < 0)
+                    i++;
+                while (compare(buffer, j*stride, pivot, 0, stride) > 0)
+                    j--;
+                if (i <= j)
+                    swap(buffer, i++, j--, stride);
+            }
+            // recurse into the smaller half, so the stack stays logarithmic
+            if (j-low < high-i) {
+                quickSort(buffer, low, j, stride, pivot);
+                low = i;
+            } else {
+                quickSort(buffer, i, high, stride, pivot);
+                high = j;
+            }
+        }
+    }
+
+    private static void swap(long[] buffer, int a, int b, int stride) {
+        for (int w = 0; w < stride; w++) {
+            long t = buffer[a*stride+w];
+            buffer[a*stride+w] = buffer[b*stride+w];
+            buffer[b*stride+w] = t;
+        }
+    }
+
+    /**
+     * Writes states into segments named prefix-00000.seg, prefix-00001.seg...
+     */
+    static class Writer implements Closeable {
+        private final Path directory;
+        private final String prefix;
+        private final int stride;
+        private final long segmentStates;
+        private final List<Path> files = new ArrayList<>();
+
+        private FileChannel channel;
+        private MappedByteBuffer segment;
+        private long inSegment;
+        private long count;
+
+        Writer(Path directory, String prefix, int stride, long segmentStates) {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.stride = stride;
+            this.segmentStates = segmentStates;
+        }
+
+        void write(long[] src, int offset) throws IOException {
+            if (segment == null || inSegment == segmentStates)
+                nextSegment();
+            for (int w = 0; w < stride; w++)
+                segment.putLong(src[offset+w]);
+            inSegment++;
+            count++;
+        }
+
+        private void nextSegment() throws IOException {
+            finishSegment();
+            Path file = directory.resolve(String.format("%s-%05d.seg", prefix, files.size()));
+            files.add(file);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + 8L*stride*segmentStates);
+            segment.position(HEADER);
+            inSegment = 0;
+        }
+
+        private void finishSegment() throws IOException {
+            if (segment == null)
+                return;
+            segment.putInt(0, MAGIC);
+            segment.putInt(4, stride);
+            segment.putLong(8, inSegment);
+            segment.force();
+            try {
+                // the unused tail was never touched, on most file systems it takes no space anyway
+                channel.truncate(HEADER + 8L*stride*inSegment);
+            } catch (IOException ignored) {
+                // mapped files can't be truncated on some systems
+            }
+            channel.close();
+            segment = null;
+        }
+
+        long count() {
+            return count;
+        }
+
+        List<Path> files() {
+            return files;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finishSegment();
+        }
+    }
+
+    /**
+     * Reads the states of the given segments in order, one at a time.
+     */
+    static class Reader implements Closeable {
+        final long[] state;
+        private final List<Path> files;
+        private final int stride;
+        private int nextFile;
+        private MappedByteBuffer segment;
+        private long left;
+
+        Reader(List<Path> files, int stride) {
+            this.files = files;
+            this.stride = stride;
+            this.state = new long[stride];
+        }
+
+        /**
+         * Loads the next state into {@link #state}.
+         * @return false once every segment is read
+         */
+        boolean next() throws IOException {
+            while (left == 0) {
+                if (nextFile == files.size())
+                    return false;
+                open(files.get(nextFile++));
+            }
+            for (int w = 0; w < stride; w++)
+                state[w] = segment.getLong();
+            left--;
+            return true;
+        }
+
+        private void open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != stride)
+                    throw new IOException(file+" is not a state segment");
+                long count = header.getLong(8);
+                if (channel.size() < HEADER + 8L*stride*count)
+                    throw new IOException(file+" is truncated");
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, 8L*stride*count);
+                left = count;
+            }
+        }
+
+        @Override
+        public void close() {
+            segment = null;
+            left = 0;
+            nextFile = files.size();
+        }
+    }
+
+    static void delete(List<Path> files) throws IOException {
+        for (Path file : files)
+            Files.deleteIfExists(file);
+    }
+}
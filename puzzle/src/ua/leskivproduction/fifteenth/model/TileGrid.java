@@ -0,0 +1,16 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * Read-only view of a puzzle position, shared by packed and mutable boards
+ * so that heuristics don't care which one the engine is using.
+ */
+public interface TileGrid {
+    int dimension();
+
+    int blankIndex();
+
+    /**
+     * @return tile at the given row-major cell, -1 for the blank
+     */
+    int tileAt(int cell);
+}
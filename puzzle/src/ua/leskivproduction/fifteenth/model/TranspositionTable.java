@@ -0,0 +1,144 @@
+package ua.leskivproduction.fifteenth.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of packed states with the smallest g they were reached with
+ * and a lower bound on their distance to the goal.
+ * Slots are grouped by {@value #WAYS}, a state may only live in the group its hash points to.
+ * When the group is full, entries left from earlier generations go first,
+ * then the deepest one, since it covers the smallest subtree.
+ * The g of an entry only counts within the generation it was stored in,
+ * bounds stay true forever. Not thread-safe.
+ */
+public class TranspositionTable {
+    public static final long DEFAULT_MEMORY = 32L << 20;
+    private static final int WAYS = 4;
+
+    private static final long FIELD_MASK = (1L << 24)-1;
+    private static final int BOUND_SHIFT = 24;
+    private static final int GENERATION_SHIFT = 48;
+
+    private final int dimension;
+    private final int stride;
+    private final long[] keys;
+    // depth | bound << 24 | generation << 48, generation 0 marks an empty slot
+    private final long[] values;
+    private final int groupMask;
+    private int generation = 1;
+
+    public TranspositionTable(int dimension) {
+        this(dimension, DEFAULT_MEMORY);
+    }
+
+    /**
+     * @param memoryBytes the table never takes more than this, it is rounded down to a power of two of slots
+     */
+    public TranspositionTable(int dimension, long memoryBytes) {
+        this.dimension = dimension;
+        this.stride = PackedBoard.wordCount(dimension);
+        long slots = memoryBytes/(8L*(stride+1));
+        if (slots < WAYS)
+            throw new IllegalArgumentException(memoryBytes+" bytes is too little for a transposition table");
+        int capacity = Integer.highestOneBit((int) Math.min(slots, 1 << 30));
+        this.keys = new long[capacity*stride];
+        this.values = new long[capacity];
+        this.groupMask = capacity/WAYS-1;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Starts a new generation, g values stored before stop counting.
+     */
+    void nextGeneration() {
+        generation = (generation+1) & 0xFFFF;
+        if (generation == 0) {
+            // entries from the generation that would come round again must not count as current
+            clear();
+            generation = 1;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+    }
+
+    /**
+     * @return slot of the state kept in src, -1 if it isn't in the table
+     */
+    int find(long[] src, int offset) {
+        int base = group(src, offset);
+        for (int slot = base; slot < base+WAYS; slot++)
+            if (values[slot] != 0 && sameKey(slot, src, offset))
+                return slot;
+        return -1;
+    }
+
+    /**
+     * @return smallest g the state was stored with in this generation, Integer.MAX_VALUE if none
+     */
+    int depth(int slot) {
+        long value = values[slot];
+        if ((int) (value >>> GENERATION_SHIFT) != generation)
+            return Integer.MAX_VALUE;
+        return (int) (value & FIELD_MASK);
+    }
+
+    int bound(int slot) {
+        return (int) ((values[slot] >>> BOUND_SHIFT) & FIELD_MASK);
+    }
+
+    void store(long[] src, int offset, int depth, int bound) {
+        depth = (int) Math.min(depth, FIELD_MASK);
+        bound = (int) Math.min(bound, FIELD_MASK);
+
+        int slot = find(src, offset);
+        if (slot != -1) {
+            depth = Math.min(depth, depth(slot));
+            bound = Math.max(bound, bound(slot));
+        } else {
+            slot = victim(group(src, offset));
+            System.arraycopy(src, offset, keys, slot*stride, stride);
+        }
+        values[slot] = depth | (long) bound << BOUND_SHIFT | (long) generation << GENERATION_SHIFT;
+    }
+
+    private int victim(int base) {
+        int victim = base;
+        for (int slot = base; slot < base+WAYS; slot++) {
+            if (values[slot] == 0)
+                return slot;
+            if (rank(slot) > rank(victim))
+                victim = slot;
+        }
+        return victim;
+    }
+
+    private long rank(int slot) {
+        long value = values[slot];
+        boolean stale = (int) (value >>> GENERATION_SHIFT) != generation;
+        return (stale? 1L << 32 : 0) | (value & FIELD_MASK);
+    }
+
+    private int group(long[] src, int offset) {
+        long h = 0;
+        for (int w = 0; w < stride; w++)
+            h = (h ^ src[offset+w])*0x9E3779B97F4A7C15L;
+        return ((int) (h ^ (h >>> 32)) & groupMask)*WAYS;
+    }
+
+    private boolean sameKey(int slot, long[] src, int offset) {
+        int base = slot*stride;
+        for (int w = 0; w < stride; w++)
+            if (keys[base+w] != src[offset+w])
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.heuristic.Heuristic;
+
+/**
+ * A* on f = g + (1+ε)h, expanded nodes are never reopened.
+ * With a consistent heuristic the solution is at most (1+ε) times longer than the optimal one,
+ * the result's lower bound is usually tighter than that.
+ */
+public class WeightedAStarEngine extends AraStarEngine {
+    private final double epsilon;
+
+    public WeightedAStarEngine(Heuristic heuristic, double epsilon) {
+        super(heuristic, epsilon, 1, epsilon);
+        this.epsilon = effectiveEpsilon(epsilon);
+    }
+
+    /**
+     * @return ε actually searched with, see {@link #effectiveEpsilon(double)}
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+}
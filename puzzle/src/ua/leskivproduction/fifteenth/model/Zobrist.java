@@ -0,0 +1,41 @@
+package ua.leskivproduction.fifteenth.model;
+
+/**
+ * 64-bit Zobrist hashing of boards: the xor of one random key per (cell, tile) pair, blanks excluded.
+ * A move changes two pairs, so the hash is updated in O(1).
+ * Keys are the SplitMix64 outputs for the pair's index, so they are the same on every run
+ * and hashes can be stored and compared across processes.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5DEECE66DL;
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param tile -1 for the blank, which has no key
+     */
+    public static long key(int dimension, int cell, int tile) {
+        if (tile < 0)
+            return 0;
+        long z = SEED + ((long) dimension << 40 | (long) cell << 20 | tile)*0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30))*0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27))*0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long hash(TileGrid board) {
+        int dimension = board.dimension();
+        long hash = 0;
+        for (int cell = 0; cell < dimension*dimension; cell++)
+            hash ^= key(dimension, cell, board.tileAt(cell));
+        return hash;
+    }
+
+    /**
+     * @return what to xor into the hash when the tile slides from one cell to another
+     */
+    public static long delta(int dimension, int tile, int from, int to) {
+        return key(dimension, from, tile) ^ key(dimension, to, tile);
+    }
+}
@@ -0,0 +1,21 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import ua.leskivproduction.fifteenth.model.TileGrid;
+
+/**
+ * Lower bound on the number of moves left to the goal.
+ * Implementations must be admissible, otherwise optimal engines lose their guarantee.
+ */
+public interface Heuristic {
+
+    int estimate(TileGrid board);
+
+    /**
+     * Estimate for a child that differs from its parent by a single slid tile.
+     * @param parentEstimate value previously computed for the parent
+     * @param board child position, the tile already stands on {@code to}
+     */
+    default int update(int parentEstimate, TileGrid board, int tile, int from, int to) {
+        return estimate(board);
+    }
+}
@@ -0,0 +1,86 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.TileGrid;
+
+/**
+ * Manhattan distance plus two moves for every tile that has to leave its goal line
+ * to let the other tiles of that line pass.
+ * The least amount of such tiles is the line length minus the longest increasing
+ * run of goal positions, so the estimate stays admissible.
+ */
+public class LinearConflictHeuristic implements Heuristic {
+    private static final int MAX_DIMENSION = 16;
+
+    @Override
+    public int estimate(TileGrid board) {
+        int dimension = board.dimension();
+        checkDimension(dimension);
+
+        int distance = 0;
+        for (int i = 0; i < dimension*dimension; i++) {
+            int tile = board.tileAt(i);
+            if (tile != -1)
+                distance += Math.abs(tile%dimension - i%dimension) + Math.abs(tile/dimension - i/dimension);
+        }
+
+        int removals = 0;
+        for (int line = 0; line < dimension; line++) {
+            removals += removals(board, true, line, -1, -1, -1);
+            removals += removals(board, false, line, -1, -1, -1);
+        }
+        return distance + 2*removals;
+    }
+
+    /**
+     * A vertical move doesn't change the order of tiles inside any column and vice versa,
+     * so only the two lines the tile went between are recounted.
+     */
+    @Override
+    public int update(int parentEstimate, TileGrid board, int tile, int from, int to) {
+        int dimension = board.dimension();
+        boolean rows = from%dimension == to%dimension;
+        int line1 = rows? from/dimension : from%dimension;
+        int line2 = rows? to/dimension : to%dimension;
+
+        int before = removals(board, rows, line1, tile, from, to) + removals(board, rows, line2, tile, from, to);
+        int after = removals(board, rows, line1, -1, -1, -1) + removals(board, rows, line2, -1, -1, -1);
+
+        return parentEstimate + PackedBoard.manhattanDelta(dimension, tile, from, to) + 2*(after-before);
+    }
+
+    /**
+     * @param tile if not -1, the line is read as if this tile stood on tileCell and blankCell was empty
+     * @return least amount of tiles to take out of the line so the rest are in goal order
+     */
+    private static int removals(TileGrid board, boolean row, int line, int tile, int tileCell, int blankCell) {
+        int dimension = board.dimension();
+
+        // tails of increasing runs, 4 bits per length
+        long tails = 0;
+        int longest = 0;
+        int inLine = 0;
+        for (int k = 0; k < dimension; k++) {
+            int cell = row? line*dimension + k : k*dimension + line;
+            int t = cell == tileCell? tile : cell == blankCell? -1 : board.tileAt(cell);
+            if (t == -1 || (row? t/dimension : t%dimension) != line)
+                continue;
+
+            int goal = row? t%dimension : t/dimension;
+            int i = 0;
+            while (i < longest && ((tails >>> (i << 2)) & 0xF) < goal)
+                i++;
+            tails = tails & ~(0xFL << (i << 2)) | (long) goal << (i << 2);
+            if (i == longest)
+                longest++;
+            inLine++;
+        }
+        return inLine - longest;
+    }
+
+    private static void checkDimension(int dimension) {
+        if (dimension > MAX_DIMENSION)
+            throw new IllegalArgumentException("linear conflict supports boards up to "+
+                    MAX_DIMENSION+"x"+MAX_DIMENSION);
+    }
+}
@@ -0,0 +1,24 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.TileGrid;
+
+public class ManhattanHeuristic implements Heuristic {
+
+    @Override
+    public int estimate(TileGrid board) {
+        int dimension = board.dimension();
+        int distance = 0;
+        for (int i = 0; i < dimension*dimension; i++) {
+            int tile = board.tileAt(i);
+            if (tile != -1)
+                distance += Math.abs(tile%dimension - i%dimension) + Math.abs(tile/dimension - i/dimension);
+        }
+        return distance;
+    }
+
+    @Override
+    public int update(int parentEstimate, TileGrid board, int tile, int from, int to) {
+        return parentEstimate + PackedBoard.manhattanDelta(board.dimension(), tile, from, to);
+    }
+}
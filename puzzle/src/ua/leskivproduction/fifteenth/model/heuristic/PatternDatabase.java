@@ -0,0 +1,157 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Table of exact move counts for one group of tiles, all other tiles being indistinguishable.
+ * Only moves of the group's tiles are counted, so tables of disjoint groups can be added up.
+ *
+ * Entries are indexed by the ranked placement of the group's tiles and take one byte each.
+ * On disk the table follows a small header and is memory-mapped when loaded.
+ */
+public class PatternDatabase {
+    private static final int MAGIC = 0x50444231;
+    static final int POSITION_BITS = 6;
+
+    private final int dimension;
+    private final int[] tiles;
+    private final ByteBuffer table;
+
+    PatternDatabase(int dimension, int[] tiles, ByteBuffer table) {
+        if (dimension*dimension > 1 << POSITION_BITS)
+            throw new IllegalArgumentException("pattern databases support boards up to 8x8");
+        this.dimension = dimension;
+        this.tiles = tiles.clone();
+        this.table = table;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int[] tiles() {
+        return tiles.clone();
+    }
+
+    /**
+     * @param positions cells of the group's tiles, {@value #POSITION_BITS} bits each, in {@link #tiles()} order
+     */
+    public int lookup(long positions) {
+        return table.get((int) rank(positions, tiles.length, dimension*dimension)) & 0xFF;
+    }
+
+    /**
+     * @return amount of ordered placements of k tiles over the given number of cells
+     */
+    static long size(int cells, int k) {
+        long size = 1;
+        for (int i = 0; i < k; i++)
+            size *= cells-i;
+        return size;
+    }
+
+    /**
+     * Ranks a placement into [0, size(cells, k)): every position is counted
+     * among the cells not yet taken by the previous tiles.
+     */
+    static long rank(long positions, int k, int cells) {
+        long rank = 0;
+        long used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = (int) (positions >>> (i*POSITION_BITS)) & ((1 << POSITION_BITS)-1);
+            rank = rank*(cells-i) + p - Long.bitCount(used & ((1L << p)-1));
+            used |= 1L << p;
+        }
+        return rank;
+    }
+
+    static long unrank(long rank, int k, int cells) {
+        int[] digits = new int[k];
+        for (int i = k-1; i >= 0; i--) {
+            digits[i] = (int) (rank % (cells-i));
+            rank /= cells-i;
+        }
+
+        long positions = 0;
+        long used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = -1;
+            for (int free = digits[i]; free >= 0; free--) {
+                p++;
+                while ((used & (1L << p)) != 0)
+                    p++;
+            }
+            used |= 1L << p;
+            positions |= (long) p << (i*POSITION_BITS);
+        }
+        return positions;
+    }
+
+    public static String fileName(int dimension, int[] tiles) {
+        StringBuilder builder = new StringBuilder("pdb-").append(dimension);
+        for (int t : tiles)
+            builder.append('-').append(t);
+        return builder.append(".bin").toString();
+    }
+
+    public void write(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4*(3+tiles.length));
+        header.putInt(MAGIC).putInt(dimension).putInt(tiles.length);
+        for (int t : tiles)
+            header.putInt(t);
+        header.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName()+".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining())
+                channel.write(header);
+            ByteBuffer data = table.duplicate();
+            data.clear();
+            while (data.hasRemaining())
+                channel.write(data);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Maps the table straight from disk, nothing gets deserialized.
+     */
+    public static PatternDatabase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < 12 || header.getInt() != MAGIC)
+                throw new IOException(file+" is not a pattern database");
+            int dimension = header.getInt();
+            int k = header.getInt();
+
+            ByteBuffer tileBuf = ByteBuffer.allocate(4*k);
+            channel.read(tileBuf, 12);
+            tileBuf.flip();
+            int[] tiles = new int[k];
+            for (int i = 0; i < k; i++)
+                tiles[i] = tileBuf.getInt();
+
+            long offset = 12 + 4L*k;
+            long size = size(dimension*dimension, k);
+            if (channel.size() != offset+size)
+                throw new IOException(file+" is truncated");
+            return new PatternDatabase(dimension, tiles,
+                    channel.map(FileChannel.MapMode.READ_ONLY, offset, size));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PatternDatabase"+Arrays.toString(tiles);
+    }
+}
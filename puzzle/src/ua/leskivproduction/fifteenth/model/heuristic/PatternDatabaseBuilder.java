@@ -0,0 +1,189 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Retrograde breadth-first search from the goal over abstract states
+ * (placement of the group's tiles, blank cell).
+ * Sliding any other tile is free, so the whole blank region of a placement
+ * is flooded at once and only moves of the group's tiles open the next layer.
+ *
+ * Usage: {@code PatternDatabaseBuilder [--dir path] [--dimension n] [--partition 6-6-3|7-8]}
+ */
+public class PatternDatabaseBuilder {
+    private static final byte UNSET = (byte) 0xFF;
+
+    private final int dimension;
+    private final int cells;
+    private final int[] tiles;
+
+    private final long size;
+    private final byte[] table;
+    private final long[] visited;
+
+    public PatternDatabaseBuilder(int dimension, int[] tiles) {
+        this.dimension = dimension;
+        this.cells = dimension*dimension;
+        this.tiles = tiles.clone();
+        this.size = PatternDatabase.size(cells, tiles.length);
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("pattern of "+tiles.length+" tiles is too big");
+
+        this.table = new byte[(int) size];
+        this.visited = new long[(int) ((size*cells + 63) >>> 6)];
+    }
+
+    public PatternDatabase build() {
+        Arrays.fill(table, UNSET);
+
+        long goal = 0;
+        for (int i = 0; i < tiles.length; i++)
+            goal |= (long) tiles[i] << (i*PatternDatabase.POSITION_BITS);
+
+        LongList frontier = new LongList();
+        frontier.add(PatternDatabase.rank(goal, tiles.length, cells)*cells + cells-1);
+
+        int[] region = new int[cells];
+        int[] positions = new int[tiles.length];
+        for (int depth = 0; frontier.size > 0; depth++) {
+            if (depth > 0xFE)
+                throw new IllegalStateException("distance doesn't fit into a byte");
+
+            LongList next = new LongList();
+            for (int f = 0; f < frontier.size; f++) {
+                long rank = frontier.items[f] / cells;
+                int blank = (int) (frontier.items[f] % cells);
+                if (isVisited(rank, blank))
+                    continue;
+
+                long placement = PatternDatabase.unrank(rank, tiles.length, cells);
+                long occupied = 0;
+                for (int i = 0; i < tiles.length; i++) {
+                    positions[i] = (int) (placement >>> (i*PatternDatabase.POSITION_BITS)) & 63;
+                    occupied |= 1L << positions[i];
+                }
+                if (table[(int) rank] == UNSET)
+                    table[(int) rank] = (byte) depth;
+
+                int regionSize = 0;
+                region[regionSize++] = blank;
+                markVisited(rank, blank);
+                for (int r = 0; r < regionSize; r++) {
+                    int cell = region[r];
+                    for (int neighbor : neighbors(cell)) {
+                        if (neighbor < 0)
+                            continue;
+                        if ((occupied & (1L << neighbor)) == 0) {
+                            if (!isVisited(rank, neighbor)) {
+                                markVisited(rank, neighbor);
+                                region[regionSize++] = neighbor;
+                            }
+                        } else {
+                            // one of the group's tiles slides into the blank: costs a move
+                            int slot = slotOf(positions, neighbor);
+                            long moved = placement & ~(63L << (slot*PatternDatabase.POSITION_BITS))
+                                    | (long) cell << (slot*PatternDatabase.POSITION_BITS);
+                            long movedRank = PatternDatabase.rank(moved, tiles.length, cells);
+                            if (!isVisited(movedRank, neighbor))
+                                next.add(movedRank*cells + neighbor);
+                        }
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return new PatternDatabase(dimension, tiles, ByteBuffer.wrap(table));
+    }
+
+    private final int[] neighborBuf = new int[4];
+
+    private int[] neighbors(int cell) {
+        int x = cell%dimension;
+        neighborBuf[0] = cell >= dimension? cell-dimension : -1;
+        neighborBuf[1] = cell+dimension < cells? cell+dimension : -1;
+        neighborBuf[2] = x > 0? cell-1 : -1;
+        neighborBuf[3] = x+1 < dimension? cell+1 : -1;
+        return neighborBuf;
+    }
+
+    private static int slotOf(int[] positions, int cell) {
+        for (int i = 0; i < positions.length; i++)
+            if (positions[i] == cell)
+                return i;
+        return -1;
+    }
+
+    private boolean isVisited(long rank, int blank) {
+        long bit = rank*cells + blank;
+        return (visited[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private void markVisited(long rank, int blank) {
+        long bit = rank*cells + blank;
+        visited[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    private static class LongList {
+        long[] items = new long[16];
+        int size;
+
+        void add(long item) {
+            if (size == items.length)
+                items = Arrays.copyOf(items, size*2);
+            items[size++] = item;
+        }
+    }
+
+    public static Path defaultDirectory() {
+        String dir = System.getProperty("fifteenth.pdb.dir");
+        if (dir != null)
+            return Paths.get(dir);
+        return Paths.get(System.getProperty("user.home"), ".fifteenth", "pdb");
+    }
+
+    /**
+     * Loads the group's table from the directory, building and caching it there if it's missing.
+     */
+    public static PatternDatabase loadOrBuild(Path directory, int dimension, int[] tiles) throws IOException {
+        Path file = directory.resolve(PatternDatabase.fileName(dimension, tiles));
+        if (!Files.exists(file)) {
+            Files.createDirectories(directory);
+            new PatternDatabaseBuilder(dimension, tiles).build().write(file);
+        }
+        return PatternDatabase.load(file);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = defaultDirectory();
+        int dimension = 4;
+        String partition = "6-6-3";
+        for (int i = 0; i+1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--dir":
+                    directory = Paths.get(args[i+1]);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(args[i+1]);
+                    break;
+                case "--partition":
+                    partition = args[i+1];
+                    break;
+                default:
+                    System.err.println("Unknown option "+args[i]);
+                    System.exit(1);
+            }
+        }
+
+        for (int[] tiles : PatternDatabaseHeuristic.partition(dimension, partition)) {
+            long time = System.currentTimeMillis();
+            loadOrBuild(directory, dimension, tiles);
+            System.out.println(PatternDatabase.fileName(dimension, tiles)+" ready in "+
+                    (System.currentTimeMillis()-time)+" ms");
+        }
+    }
+}
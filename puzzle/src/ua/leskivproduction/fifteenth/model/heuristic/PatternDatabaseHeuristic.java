@@ -0,0 +1,126 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import ua.leskivproduction.fifteenth.model.SearchListener.Phase;
+import ua.leskivproduction.fifteenth.model.SolverMetrics;
+import ua.leskivproduction.fifteenth.model.TileGrid;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Additive disjoint pattern database heuristic: sum of the tables of disjoint tile groups.
+ * A move changes a single group's placement, so updates look up only that group's table.
+ */
+public class PatternDatabaseHeuristic implements Heuristic {
+    private final PatternDatabase[] databases;
+    private final int[] groupOf;
+    private final int[] slotOf;
+
+    public PatternDatabaseHeuristic(PatternDatabase... databases) {
+        this.databases = databases.clone();
+        int dimension = databases[0].dimension();
+        this.groupOf = new int[dimension*dimension];
+        this.slotOf = new int[dimension*dimension];
+        Arrays.fill(groupOf, -1);
+
+        for (int g = 0; g < databases.length; g++) {
+            if (databases[g].dimension() != dimension)
+                throw new IllegalArgumentException("databases are built for different boards");
+            int[] tiles = databases[g].tiles();
+            for (int i = 0; i < tiles.length; i++) {
+                if (groupOf[tiles[i]] != -1)
+                    throw new IllegalArgumentException("tile "+tiles[i]+" belongs to several groups");
+                groupOf[tiles[i]] = g;
+                slotOf[tiles[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * @param partition group sizes like "6-6-3" or "7-8"
+     */
+    public static int[][] partition(int dimension, String partition) {
+        if (dimension == 4 && partition.equals("6-6-3")) {
+            // blocks of neighbouring goal cells, blank is at the bottom right
+            return new int[][] {{0, 1, 4, 5, 8, 12}, {2, 3, 6, 7, 10, 11}, {9, 13, 14}};
+        }
+
+        String[] sizes = partition.split("-");
+        int[][] groups = new int[sizes.length][];
+        int tile = 0;
+        for (int g = 0; g < sizes.length; g++) {
+            groups[g] = new int[Integer.parseInt(sizes[g])];
+            for (int i = 0; i < groups[g].length; i++)
+                groups[g][i] = tile++;
+        }
+        if (tile != dimension*dimension-1)
+            throw new IllegalArgumentException("partition "+partition+" doesn't cover a "+
+                    dimension+"x"+dimension+" board");
+        return groups;
+    }
+
+    /**
+     * Reads the tables of the partition, building those missing, as the {@link Phase#HEURISTIC} phase.
+     */
+    public static PatternDatabaseHeuristic load(Path directory, int dimension, String partition) throws IOException {
+        int[][] groups = partition(dimension, partition);
+        PatternDatabase[] databases = new PatternDatabase[groups.length];
+        long time = System.nanoTime();
+        SolverMetrics.get().phaseStarted(Phase.HEURISTIC);
+        try {
+            for (int g = 0; g < groups.length; g++)
+                databases[g] = PatternDatabaseBuilder.loadOrBuild(directory, dimension, groups[g]);
+        } finally {
+            SolverMetrics.get().phaseFinished(Phase.HEURISTIC, System.nanoTime()-time);
+        }
+        return new PatternDatabaseHeuristic(databases);
+    }
+
+    /**
+     * @return heuristic over tables already present in the directory, null if some are missing
+     */
+    public static PatternDatabaseHeuristic loadCached(Path directory, int dimension, String partition) {
+        for (int[] tiles : partition(dimension, partition))
+            if (!Files.exists(directory.resolve(PatternDatabase.fileName(dimension, tiles))))
+                return null;
+        try {
+            return load(directory, dimension, partition);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long positions(TileGrid board, int group) {
+        long positions = 0;
+        int cells = board.dimension()*board.dimension();
+        for (int c = 0; c < cells; c++) {
+            int tile = board.tileAt(c);
+            if (tile != -1 && groupOf[tile] == group)
+                positions |= (long) c << (slotOf[tile]*PatternDatabase.POSITION_BITS);
+        }
+        return positions;
+    }
+
+    @Override
+    public int estimate(TileGrid board) {
+        int sum = 0;
+        for (int g = 0; g < databases.length; g++)
+            sum += databases[g].lookup(positions(board, g));
+        return sum;
+    }
+
+    @Override
+    public int update(int parentEstimate, TileGrid board, int tile, int from, int to) {
+        int group = groupOf[tile];
+        if (group == -1)
+            return parentEstimate;
+
+        long now = positions(board, group);
+        int shift = slotOf[tile]*PatternDatabase.POSITION_BITS;
+        long before = now & ~(63L << shift) | (long) from << shift;
+        PatternDatabase database = databases[group];
+        return parentEstimate - database.lookup(before) + database.lookup(now);
+    }
+}
@@ -0,0 +1,163 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import ua.leskivproduction.fifteenth.model.TileGrid;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Walking distance: the board is reduced to a matrix of how many tiles of every goal row
+ * stand in every row, and the exact amount of vertical moves needed to sort that matrix
+ * is taken from a table. The same table serves columns, since the goal is symmetric.
+ * Vertical and horizontal moves never overlap, so both parts add up admissibly.
+ */
+public class WalkingDistanceHeuristic implements Heuristic {
+    private static final int MAX_DIMENSION = 4;
+    private static final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<>(MAX_DIMENSION+1);
+
+    @Override
+    public int estimate(TileGrid board) {
+        Table table = table(board.dimension());
+        return table.get(code(board, true)) + table.get(code(board, false));
+    }
+
+    /**
+     * Only the axis the tile moved along changes, the other half is kept.
+     */
+    @Override
+    public int update(int parentEstimate, TileGrid board, int tile, int from, int to) {
+        int dimension = board.dimension();
+        Table table = table(dimension);
+        boolean vertical = from%dimension == to%dimension;
+
+        long after = code(board, vertical);
+        int goal = vertical? tile/dimension : tile%dimension;
+        int fromLine = vertical? from/dimension : from%dimension;
+        int toLine = vertical? to/dimension : to%dimension;
+        long before = after - entry(dimension, toLine, goal) + entry(dimension, fromLine, goal);
+
+        return parentEstimate - table.get(before) + table.get(after);
+    }
+
+    /**
+     * Counts of tiles per (line, goal line), 3 bits each.
+     */
+    private static long code(TileGrid board, boolean rows) {
+        int dimension = board.dimension();
+        long code = 0;
+        for (int c = 0; c < dimension*dimension; c++) {
+            int tile = board.tileAt(c);
+            if (tile != -1)
+                code += rows? entry(dimension, c/dimension, tile/dimension) : entry(dimension, c%dimension, tile%dimension);
+        }
+        return code;
+    }
+
+    private static long entry(int dimension, int line, int goal) {
+        return 1L << (3*(line*dimension + goal));
+    }
+
+    private static Table table(int dimension) {
+        if (dimension > MAX_DIMENSION)
+            throw new IllegalArgumentException("walking distance supports boards up to "+
+                    MAX_DIMENSION+"x"+MAX_DIMENSION);
+        // built once, afterwards it's only read, so lookups don't lock
+        Table table = tables.get(dimension);
+        if (table == null) {
+            tables.compareAndSet(dimension, null, new Table(dimension));
+            table = tables.get(dimension);
+        }
+        return table;
+    }
+
+    /**
+     * Open addressing map from a code to its distance, filled by a BFS from the goal.
+     */
+    private static class Table {
+        private long[] keys = new long[1024];
+        private byte[] values = new byte[1024];
+        private int size;
+
+        Table(int dimension) {
+            Arrays.fill(keys, -1);
+
+            long goal = 0;
+            for (int line = 0; line < dimension; line++)
+                goal += (line == dimension-1? dimension-1 : dimension)*entry(dimension, line, line);
+
+            long[] queue = new long[16];
+            int head = 0, tail = 0;
+            queue[tail++] = goal;
+            put(goal, 0);
+            while (head < tail) {
+                long code = queue[head++];
+                int distance = get(code);
+
+                int blankLine = 0;
+                for (int line = 0; line < dimension; line++) {
+                    int sum = 0;
+                    for (int g = 0; g < dimension; g++)
+                        sum += count(code, dimension, line, g);
+                    if (sum == dimension-1)
+                        blankLine = line;
+                }
+
+                for (int neighbor = blankLine-1; neighbor <= blankLine+1; neighbor += 2) {
+                    if (neighbor < 0 || neighbor >= dimension)
+                        continue;
+                    for (int g = 0; g < dimension; g++) {
+                        if (count(code, dimension, neighbor, g) == 0)
+                            continue;
+                        long next = code - entry(dimension, neighbor, g) + entry(dimension, blankLine, g);
+                        if (get(next) == -1) {
+                            put(next, distance+1);
+                            if (tail == queue.length)
+                                queue = Arrays.copyOf(queue, tail*2);
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int count(long code, int dimension, int line, int goal) {
+            return (int) (code >>> (3*(line*dimension + goal))) & 7;
+        }
+
+        private int slot(long key) {
+            long h = key*0x9E3779B97F4A7C15L;
+            int mask = keys.length-1;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[i] != -1 && keys[i] != key)
+                i = (i+1) & mask;
+            return i;
+        }
+
+        int get(long key) {
+            int i = slot(key);
+            return keys[i] == -1? -1 : values[i];
+        }
+
+        private void put(long key, int value) {
+            if (2*(size+1) > keys.length) {
+                long[] oldKeys = keys;
+                byte[] oldValues = values;
+                keys = new long[oldKeys.length*2];
+                values = new byte[oldKeys.length*2];
+                Arrays.fill(keys, -1);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != -1) {
+                        int j = slot(oldKeys[i]);
+                        keys[j] = oldKeys[i];
+                        values[j] = oldValues[i];
+                    }
+                }
+            }
+            int i = slot(key);
+            if (keys[i] == -1)
+                size++;
+            keys[i] = key;
+            values[i] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ua.leskivproduction.fifteenth.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min priority queue of int items for small non-negative integer priorities.
+ * Every priority has its own stacks, one per depth, so both add and removeMin
+ * are O(1) amortized. Equal priorities are taken deepest first, equal depths LIFO.
+ */
+public class BucketQueue {
+    private int[][][] stacks = new int[0][][];
+    private int[][] stackSizes = new int[0][];
+    private int[] counts = new int[0];
+    private int[] topDepths = new int[0];
+
+    private int minPriority;
+    private int size;
+
+    public void add(int item, int priority, int depth) {
+        if (priority < 0 || depth < 0)
+            throw new IllegalArgumentException("priority and depth must be non-negative");
+
+        if (priority >= counts.length)
+            growPriorities(priority+1);
+        if (stacks[priority] == null || depth >= stacks[priority].length)
+            growDepths(priority, depth+1);
+
+        int[] stack = stacks[priority][depth];
+        int stackSize = stackSizes[priority][depth];
+        if (stack == null)
+            stack = stacks[priority][depth] = new int[16];
+        else if (stackSize == stack.length)
+            stack = stacks[priority][depth] = Arrays.copyOf(stack, stackSize*2);
+        stack[stackSize] = item;
+        stackSizes[priority][depth] = stackSize+1;
+
+        if (counts[priority]++ == 0 || depth > topDepths[priority])
+            topDepths[priority] = depth;
+        if (size++ == 0 || priority < minPriority)
+            minPriority = priority;
+    }
+
+    public int removeMin() {
+        if (size <= 0)
+            throw new NoSuchElementException("unable get min from item from empty queue!");
+
+        int priority = minPriority();
+        int depth = topDepths[priority];
+        while (stackSizes[priority][depth] == 0)
+            depth--;
+        topDepths[priority] = depth;
+
+        counts[priority]--;
+        size--;
+        return stacks[priority][depth][--stackSizes[priority][depth]];
+    }
+
+    public int minPriority() {
+        if (size <= 0)
+            throw new NoSuchElementException("unable get min from item from empty queue!");
+
+        while (counts[minPriority] == 0)
+            minPriority++;
+        return minPriority;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the queue, allocated stacks are kept for reuse.
+     */
+    public void clear() {
+        for (int p = 0; p < counts.length; p++) {
+            if (counts[p] != 0)
+                Arrays.fill(stackSizes[p], 0);
+            counts[p] = 0;
+        }
+        size = 0;
+        minPriority = 0;
+    }
+
+    private void growPriorities(int length) {
+        length = Math.max(length, counts.length*2);
+        stacks = Arrays.copyOf(stacks, length);
+        stackSizes = Arrays.copyOf(stackSizes, length);
+        counts = Arrays.copyOf(counts, length);
+        topDepths = Arrays.copyOf(topDepths, length);
+    }
+
+    private void growDepths(int priority, int length) {
+        int[][] old = stacks[priority];
+        length = Math.max(length, old == null? 16 : old.length*2);
+        stacks[priority] = old == null? new int[length][] : Arrays.copyOf(old, length);
+        stackSizes[priority] = stackSizes[priority] == null? new int[length] :
+                Arrays.copyOf(stackSizes[priority], length);
+    }
+}
@@ -0,0 +1,127 @@
+package ua.leskivproduction.fifteenth.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min heap over int ids with long priorities,
+ * keeps every id's heap position so priorities can be lowered in place.
+ */
+public class IndexedMinHeap {
+    private int n;
+    private int[] heap = new int[16];
+    private long[] priorities = new long[16];
+    private int[] positions = new int[16];
+
+    public IndexedMinHeap() {
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean contains(int id) {
+        return id < positions.length && positions[id] != -1;
+    }
+
+    public long priorityOf(int id) {
+        if (!contains(id))
+            throw new NoSuchElementException("id "+id+" is not in the heap");
+        return priorities[id];
+    }
+
+    public void add(int id, long priority) {
+        if (contains(id))
+            throw new IllegalArgumentException("id "+id+" is already in the heap");
+        ensureId(id);
+        if (++n >= heap.length)
+            heap = Arrays.copyOf(heap, heap.length*2);
+
+        heap[n] = id;
+        positions[id] = n;
+        priorities[id] = priority;
+        swim(n);
+    }
+
+    /**
+     * Adds the id or lowers its priority, higher priorities are ignored.
+     * @return true if the heap changed
+     */
+    public boolean decreaseKey(int id, long priority) {
+        if (!contains(id)) {
+            add(id, priority);
+            return true;
+        }
+        if (priority >= priorities[id])
+            return false;
+        priorities[id] = priority;
+        swim(positions[id]);
+        return true;
+    }
+
+    public int removeMin() {
+        if (n <= 0)
+            throw new NoSuchElementException("unable get min from item from empty queue!");
+
+        int min = heap[1];
+        swap(1, n--);
+        positions[min] = -1;
+        sink(1);
+        return min;
+    }
+
+    public int getMin() {
+        if (n <= 0)
+            throw new NoSuchElementException("unable get min from item from empty queue!");
+        return heap[1];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void clear() {
+        for (int i = 1; i <= n; i++)
+            positions[heap[i]] = -1;
+        n = 0;
+    }
+
+    private void ensureId(int id) {
+        if (id < positions.length)
+            return;
+        int length = Math.max(id+1, positions.length*2);
+        int old = positions.length;
+        positions = Arrays.copyOf(positions, length);
+        Arrays.fill(positions, old, length, -1);
+        priorities = Arrays.copyOf(priorities, length);
+    }
+
+    private void swim(int q) {
+        while (q>1 && less(q, q/2)) {
+            swap(q, q/2);
+            q = q/2;
+        }
+    }
+
+    private void sink(int q) {
+        while (2*q <= n) {
+            int j = 2*q;
+            if (j<n && less(j+1, j)) j++;
+
+            if (!less(j, q))
+                break;
+
+            swap(q, j);
+            q = j;
+        }
+    }
+
+    private boolean less(int i, int j) {
+        return priorities[heap[i]] < priorities[heap[j]];
+    }
+
+    private void swap(int i, int j) {
+        int temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+        positions[heap[i]] = i;
+        positions[heap[j]] = j;
+    }
+}
@@ -0,0 +1,67 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class AnytimeEnginesTest {
+
+    @Test
+    public void weightedSearchStaysWithinItsBound() {
+        BoardGenerator generator = new BoardGenerator(5);
+        for (double epsilon : new double[] {0.1, 0.5, 2}) {
+            WeightedAStarEngine engine = new WeightedAStarEngine(new ManhattanHeuristic(), epsilon);
+            for (int i = 0; i < 30; i++) {
+                PackedBoard board = generator.next(3);
+                int optimal = optimalLength(board);
+                SearchResult result = engine.solve(board);
+                assertSolves(board, result.moves());
+                assertTrue(result.moves().length <= (1 + engine.getEpsilon())*optimal);
+                assertTrue(result.lowerBound() <= optimal);
+            }
+        }
+    }
+
+    @Test
+    public void epsilonIsRoundedDown() {
+        assertEquals(0.3125, AraStarEngine.effectiveEpsilon(0.33), 1e-9);
+        assertEquals(0.25, new WeightedAStarEngine(new ManhattanHeuristic(), 0.3).getEpsilon(), 1e-9);
+        assertEquals(1, AraStarEngine.effectiveEpsilon(1), 1e-9);
+    }
+
+    @Test
+    public void anytimeSearchEndsOptimal() {
+        BoardGenerator generator = new BoardGenerator(6);
+        AraStarEngine engine = new AraStarEngine(new ManhattanHeuristic(), 2, 0.5);
+        for (int i = 0; i < 30; i++) {
+            PackedBoard board = generator.next(3);
+            assertOptimal(engine, board, optimalLength(board));
+        }
+        for (int i = 0; i < FOUR.length; i++)
+            assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+    }
+
+    @Test
+    public void stoppedSearchKeepsItsBestSolution() {
+        // 39 moves
+        PackedBoard board = BatchSolver.parse("5 9 1 4 10 2 7 12 13 14 11 3 0 6 15 8");
+        SearchResult result = new AraStarEngine(new ManhattanHeuristic(), 3, 0.25)
+                .solve(board, new SearchControl(SearchBudget.ofNodes(20_000)));
+        assertEquals(SearchResult.Status.NODE_LIMIT, result.status());
+        assertSolves(board, result.moves());
+        assertTrue(result.moves().length >= 39);
+        assertTrue(result.lowerBound() >= board.manhattan() && result.lowerBound() <= 39);
+    }
+
+    @Test
+    public void stoppedBeforeAnySolutionKeepsTheRootBound() {
+        PackedBoard board = new BoardGenerator(10).next(5);
+        SearchResult result = new AraStarEngine(new ManhattanHeuristic(), 0.5, 0.25)
+                .solve(board, new SearchControl(SearchBudget.ofNodes(SearchControl.CHECK_INTERVAL)));
+        assertEquals(SearchResult.Status.NODE_LIMIT, result.status());
+        assertTrue(result.lowerBound() >= board.manhattan());
+    }
+}
@@ -0,0 +1,109 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class BatchSolverTest {
+
+    private static List<BatchResult> solveAll(BatchSolver solver, Iterator<PackedBoard> boards)
+            throws InterruptedException {
+        List<BatchResult> results = new ArrayList<>();
+        solver.solve(boards, results::add);
+        results.sort((a, b) -> Long.compare(a.index(), b.index()));
+        return results;
+    }
+
+    @Test(timeout = 30_000)
+    public void solvesEveryBoard() throws InterruptedException {
+        List<PackedBoard> boards = new ArrayList<>();
+        BoardGenerator generator = new BoardGenerator(9);
+        for (int i = 0; i < 200; i++)
+            boards.add(generator.next(3));
+
+        List<BatchResult> results = solveAll(new BatchSolver(4), boards.iterator());
+        assertEquals(boards.size(), results.size());
+        for (int i = 0; i < boards.size(); i++) {
+            BatchResult result = results.get(i);
+            assertEquals(i, result.index());
+            assertEquals(boards.get(i), result.board());
+            assertEquals(SearchResult.Status.SOLVED, result.status());
+            assertSolves(result.board(), result.moves());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void reportsUnsolvableBoards() throws InterruptedException {
+        PackedBoard unsolvable = BatchSolver.parse("2 1 3 4 5 6 7 8 0");
+        List<BatchResult> results = solveAll(new BatchSolver(2), Collections.singletonList(unsolvable).iterator());
+        assertFalse(results.get(0).isSolvable());
+        assertNull(results.get(0).moves());
+    }
+
+    @Test(timeout = 30_000)
+    public void goesOnAfterAnEngineFails() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        BatchSolver solver = new BatchSolver(1, dimension -> {
+            // the first engine fails, its replacement works
+            if (created.getAndIncrement() == 0)
+                return (start, control) -> {
+                    throw new IllegalStateException("broken engine");
+                };
+            return new IdaStarEngine();
+        });
+        List<PackedBoard> boards = new ArrayList<>();
+        for (String board : THREE)
+            boards.add(BatchSolver.parse(board));
+
+        List<BatchResult> results = solveAll(solver, boards.iterator());
+        assertNotNull(results.get(0).error());
+        assertNull(results.get(0).status());
+        assertTrue(results.get(0).toString().contains("broken engine"));
+        assertEquals(THREE_LENGTHS[1], results.get(1).moves().length);
+        assertEquals(2, created.get());
+    }
+
+    @Test(timeout = 30_000)
+    public void budgetsAreGivenPerSize() throws InterruptedException {
+        BatchSolver solver = new BatchSolver(1, dimension -> new IdaStarEngine(),
+                dimension -> dimension == 4? SearchBudget.ofNodes(1) : SearchBudget.UNLIMITED);
+        List<PackedBoard> boards = new ArrayList<>();
+        boards.add(BatchSolver.parse(THREE[0]));
+        // 39 moves, far more nodes than a check interval
+        boards.add(BatchSolver.parse("5 9 1 4 10 2 7 12 13 14 11 3 0 6 15 8"));
+
+        List<BatchResult> results = solveAll(solver, boards.iterator());
+        assertEquals(SearchResult.Status.SOLVED, results.get(0).status());
+        assertEquals(SearchResult.Status.NODE_LIMIT, results.get(1).status());
+    }
+
+    @Test(timeout = 30_000)
+    public void badInputStopsTheWorkersAndNamesTheLine() throws InterruptedException {
+        String input = "# boards\n" + THREE[0] + "\n\n1 2 3 x 5 6 7 8 0\n" + THREE[1] + "\n";
+        List<BatchResult> results = new ArrayList<>();
+        try {
+            new BatchSolver(2).solve(BatchSolver.boards(new BufferedReader(new StringReader(input))), results::add);
+            fail("the malformed line was accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("line 4: "));
+        }
+        // the board before the bad line was still solved and the workers are gone
+        assertEquals(1, results.size());
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+            assertFalse(thread.getName().startsWith("batch-solver-") && thread.isAlive());
+    }
+}
@@ -0,0 +1,38 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.LinearConflictHeuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class BidirectionalEngineTest {
+
+    @Test
+    public void optimalOnKnownBoards() {
+        BidirectionalEngine engine = new BidirectionalEngine(new ManhattanHeuristic());
+        for (int i = 0; i < THREE.length; i++)
+            assertOptimal(engine, BatchSolver.parse(THREE[i]), THREE_LENGTHS[i]);
+        for (int i = 0; i < FOUR.length; i++)
+            assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+    }
+
+    @Test
+    public void agreesWithAStar() {
+        BoardGenerator generator = new BoardGenerator(14);
+        BidirectionalEngine engine = new BidirectionalEngine(new LinearConflictHeuristic());
+        for (int i = 0; i < 50; i++) {
+            PackedBoard board = generator.next(3);
+            assertOptimal(engine, board, optimalLength(board));
+        }
+    }
+
+    @Test
+    public void meetsRightAwayNearTheGoal() {
+        BidirectionalEngine engine = new BidirectionalEngine();
+        assertOptimal(engine, PackedBoard.goal(4), 0);
+        assertOptimal(engine, PackedBoard.goal(4).move(Direction.DOWN), 1);
+        assertOptimal(engine, PackedBoard.goal(4).move(Direction.DOWN).move(Direction.RIGHT), 2);
+    }
+}
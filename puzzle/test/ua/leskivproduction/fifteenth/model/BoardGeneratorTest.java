@@ -0,0 +1,128 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoardGeneratorTest {
+
+    private static double chiSquare(long[] counts, double expected) {
+        double sum = 0;
+        for (long count : counts)
+            sum += (count-expected)*(count-expected)/expected;
+        return sum;
+    }
+
+    @Test
+    public void everySolvableTwoByTwoBoardIsEquallyLikely() {
+        BoardGenerator generator = new BoardGenerator(1);
+        Map<PackedBoard, Integer> seen = new HashMap<>();
+        int samples = 120_000;
+        for (int i = 0; i < samples; i++)
+            seen.merge(generator.next(2), 1, Integer::sum);
+
+        // half of the 4! arrangements
+        assertEquals(12, seen.size());
+        long[] counts = new long[seen.size()];
+        int i = 0;
+        for (int count : seen.values())
+            counts[i++] = count;
+        // 11 degrees of freedom, a uniform generator goes over this once in a thousand seeds
+        assertTrue(chiSquare(counts, samples/12.0) < 31.3);
+    }
+
+    @Test
+    public void tilesAreSpreadEvenly() {
+        BoardGenerator generator = new BoardGenerator(2);
+        int samples = 90_000;
+        long[][] counts = new long[9][9];
+        for (int i = 0; i < samples; i++) {
+            PackedBoard board = generator.next(3);
+            for (int cell = 0; cell < 9; cell++)
+                counts[cell][board.tileAt(cell)+1]++;
+        }
+        // every tile and the blank lands on every cell as often, 8 degrees of freedom each
+        for (long[] cell : counts)
+            assertTrue(chiSquare(cell, samples/9.0) < 26.2);
+    }
+
+    @Test
+    public void sameSeedSameBoards() {
+        BoardGenerator a = new BoardGenerator(3);
+        BoardGenerator b = new BoardGenerator(3);
+        for (int dimension = 2; dimension <= 8; dimension++)
+            for (int i = 0; i < 20; i++)
+                assertEquals(a.next(dimension), b.next(dimension));
+
+        BoardGenerator split = a.split();
+        assertEquals(split.next(6), b.split().next(6));
+        assertNotEquals(split.next(6), a.next(6));
+    }
+
+    @Test
+    public void boardsAreSolvable() {
+        BoardGenerator generator = new BoardGenerator(4);
+        for (int dimension = 2; dimension <= 12; dimension++)
+            for (int i = 0; i < 200; i++)
+                assertTrue(generator.next(dimension).isSolvable());
+    }
+
+    @Test
+    public void fillWritesWhatNextMakes() {
+        for (int dimension = 2; dimension <= 6; dimension++) {
+            int stride = PackedBoard.wordCount(dimension);
+            int count = 30;
+            long[] filled = new long[count*stride + 1];
+            new BoardGenerator(5).fill(dimension, filled, 1, count);
+
+            long[] expected = new long[count*stride + 1];
+            BoardGenerator generator = new BoardGenerator(5);
+            for (int i = 0; i < count; i++)
+                generator.next(dimension).writeWords(expected, 1 + i*stride);
+            assertArrayEquals(expected, filled);
+        }
+    }
+
+    @Test
+    public void boardsStayWithinTheirBand() {
+        BoardGenerator generator = new BoardGenerator(6);
+        ManhattanHeuristic manhattan = new ManhattanHeuristic();
+        ToIntFunction<PackedBoard> distance = BoardGenerator.heuristicDistance(manhattan);
+        int[][] bands = {{1, 1}, {2, 4}, {10, 12}, {30, 35}, {45, 50}};
+        for (int[] band : bands) {
+            for (int i = 0; i < 10; i++) {
+                PackedBoard board = generator.next(4, distance, band[0], band[1]);
+                int d = manhattan.estimate(board);
+                assertTrue(d >= band[0] && d <= band[1]);
+                assertTrue(board.isSolvable());
+            }
+        }
+    }
+
+    @Test
+    public void optimalBandsAreExact() {
+        BoardGenerator generator = new BoardGenerator(7);
+        ToIntFunction<PackedBoard> distance = BoardGenerator.optimalDistance(new AStarEngine());
+        for (int length = 3; length <= 19; length += 8)
+            assertEquals(length, distance.applyAsInt(generator.next(3, distance, length, length)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyBandIsRejected() {
+        new BoardGenerator(8).next(3, BoardGenerator.heuristicDistance(new ManhattanHeuristic()), 5, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unreachableBandIsReported() {
+        // no 2x2 board is more than 6 moves away
+        new BoardGenerator(9).next(2, BoardGenerator.heuristicDistance(new ManhattanHeuristic()), 20, 30);
+    }
+}
@@ -0,0 +1,154 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoardTest {
+
+    private static Board randomWalk(int dimension, long seed, int steps) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = new Board(dimension);
+        for (int step = 0; step < steps; step++)
+            board.move(Direction.values()[random.nextInt(4)]);
+        return board;
+    }
+
+    @Test
+    public void tracksBlankAndDistance() {
+        for (int dimension = 2; dimension <= 6; dimension++) {
+            SplittableRandom random = new SplittableRandom(dimension);
+            Board board = new Board(dimension);
+            for (int step = 0; step < 500; step++) {
+                board.move(Direction.values()[random.nextInt(4)]);
+                PackedBoard packed = board.pack();
+                assertEquals(packed.blankIndex(), board.blankIndex());
+                assertEquals(board.manhattan(), new Board(packed).manhattan());
+                assertEquals(packed.manhattan()*(dimension < 4? 1 : dimension), board.manhattan());
+            }
+        }
+    }
+
+    @Test
+    public void rescansAfterHandPlacedCells() {
+        Board walked = randomWalk(4, 1, 300);
+        Board placed = new Board(4);
+        placed.clear();
+        for (int cell = 0; cell < 16; cell++) {
+            int tile = walked.tileAt(cell);
+            if (tile != -1)
+                assertTrue(placed.setCell(tile, cell%4, cell/4));
+        }
+        assertEquals(walked.blankIndex(), placed.blankIndex());
+        assertEquals(walked.manhattan(), placed.manhattan());
+        assertEquals(walked, placed);
+    }
+
+    @Test
+    public void hashFollowsEveryMove() {
+        for (int dimension = 2; dimension <= 6; dimension++) {
+            SplittableRandom random = new SplittableRandom(dimension);
+            Board board = new Board(dimension);
+            assertEquals(Zobrist.hash(board), board.getZobristHash());
+            for (int step = 0; step < 500; step++) {
+                board.move(Direction.values()[random.nextInt(4)]);
+                assertEquals(Zobrist.hash(board), board.getZobristHash());
+                assertEquals(Zobrist.hash(board.pack()), board.getZobristHash());
+            }
+        }
+    }
+
+    @Test
+    public void hashTellsBoardsApart() {
+        Set<Long> hashes = new HashSet<>();
+        Set<PackedBoard> boards = new HashSet<>();
+        BoardGenerator generator = new BoardGenerator(4);
+        for (int i = 0; i < 10_000; i++) {
+            PackedBoard board = generator.next(4);
+            if (boards.add(board))
+                assertTrue(hashes.add(new Board(board).getZobristHash()));
+        }
+        // the same position reached two ways hashes alike
+        Board walked = new Board(3);
+        walked.move(Direction.DOWN);
+        walked.move(Direction.UP);
+        assertEquals(new Board(3).getZobristHash(), walked.getZobristHash());
+        assertEquals(new Board(3).hashCode(), walked.hashCode());
+    }
+
+    @Test
+    public void visitsTheSameNeighborsItCopies() {
+        for (int dimension = 2; dimension <= 5; dimension++) {
+            Board board = randomWalk(dimension, dimension, 100);
+            Board before = randomWalk(dimension, dimension, 100);
+
+            List<Board> copies = new ArrayList<>();
+            for (Board neighbor : board.neighbors())
+                if (neighbor != null)
+                    copies.add(neighbor);
+            List<Board> visited = new ArrayList<>();
+            assertTrue(board.forEachNeighbor(null, (neighbor, dir) -> {
+                visited.add(new Board(neighbor.pack()));
+                return true;
+            }));
+
+            assertEquals(copies, visited);
+            // every move was taken back
+            assertEquals(before, board);
+            assertEquals(before.getZobristHash(), board.getZobristHash());
+            assertEquals(before.manhattan(), board.manhattan());
+        }
+    }
+
+    @Test
+    public void skipsTheWayBackAndStopsWhenAsked() {
+        Board board = randomWalk(4, 7, 100);
+        for (Direction parent : Direction.values()) {
+            int[] visits = {0};
+            board.forEachNeighbor(parent, (neighbor, dir) -> {
+                assertTrue(dir != parent.opposite());
+                visits[0]++;
+                return true;
+            });
+            assertTrue(visits[0] <= 3);
+        }
+
+        int[] visits = {0};
+        assertFalse(board.forEachNeighbor(null, (neighbor, dir) -> ++visits[0] < 1));
+        assertEquals(1, visits[0]);
+    }
+
+    @Test
+    public void findsTheMoveBetweenNeighbors() {
+        Board board = randomWalk(3, 8, 50);
+        for (Board neighbor : board.neighbors()) {
+            if (neighbor == null)
+                continue;
+            Direction dir = board.directionTo(neighbor);
+            Board moved = new Board(board.pack());
+            assertTrue(moved.move(dir));
+            assertEquals(neighbor, moved);
+        }
+        assertNull(board.directionTo(new Board(board.pack())));
+    }
+
+    @Test
+    public void findsTheCellOfATile() {
+        Board board = new Board(BatchSolver.parse("8 6 7 2 5 4 3 0 1"));
+        assertEquals(0, board.cellOf(7));
+        assertEquals(4, board.cellOf(4));
+        assertEquals(8, board.cellOf(0));
+        assertEquals(7, board.cellOf(-1));
+        assertEquals(-1, board.cellOf(8));
+    }
+}
@@ -0,0 +1,75 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class ConstructiveEngineTest {
+
+    private static void assertBuilds(SolverEngine engine, PackedBoard board) {
+        SearchResult result = engine.solve(board);
+        assertEquals(SearchResult.Status.SOLVED, result.status());
+        assertSolves(board, result.moves());
+        assertTrue(result.lowerBound() <= result.moves().length);
+    }
+
+    @Test
+    public void solvesSmallBoards() {
+        BoardGenerator generator = new BoardGenerator(3);
+        for (boolean improve : new boolean[] {false, true}) {
+            ConstructiveEngine engine = new ConstructiveEngine(improve);
+            for (int dimension = 2; dimension <= 8; dimension++)
+                for (int i = 0; i < 50; i++)
+                    assertBuilds(engine, generator.next(dimension));
+        }
+    }
+
+    @Test
+    public void solvesLargeBoards() {
+        BoardGenerator generator = new BoardGenerator(4);
+        ConstructiveEngine engine = new ConstructiveEngine();
+        for (int dimension : new int[] {20, 50})
+            assertBuilds(engine, generator.next(dimension));
+    }
+
+    @Test
+    public void neverBeatsTheOptimum() {
+        ConstructiveEngine engine = new ConstructiveEngine();
+        for (int i = 0; i < THREE.length; i++) {
+            PackedBoard board = BatchSolver.parse(THREE[i]);
+            assertBuilds(engine, board);
+            assertTrue(engine.solve(board).moves().length >= THREE_LENGTHS[i]);
+        }
+        for (int i = 0; i < FOUR.length; i++) {
+            PackedBoard board = BatchSolver.parse(FOUR[i]);
+            assertBuilds(engine, board);
+            assertTrue(engine.solve(board).moves().length >= FOUR_LENGTHS[i]);
+        }
+    }
+
+    @Test
+    public void improvementNeverLengthens() {
+        BoardGenerator generator = new BoardGenerator(5);
+        ConstructiveEngine plain = new ConstructiveEngine(false);
+        ConstructiveEngine improved = new ConstructiveEngine(true);
+        for (int i = 0; i < 20; i++) {
+            PackedBoard board = generator.next(6);
+            assertTrue(improved.solve(board).moves().length <= plain.solve(board).moves().length);
+        }
+    }
+
+    @Test
+    public void cancelledBuildStops() {
+        SearchControl control = SearchControl.unlimited();
+        control.cancel();
+        SearchResult result = new ConstructiveEngine().solve(new BoardGenerator(6).next(30), control);
+        assertEquals(SearchResult.Status.CANCELLED, result.status());
+    }
+
+    @Test
+    public void goalTakesNoMoves() {
+        assertEquals(0, new ConstructiveEngine().solve(PackedBoard.goal(7)).moves().length);
+    }
+}
@@ -0,0 +1,54 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ExternalBfsTest {
+    // 8-puzzle: half of 9! states, the farthest 31 moves away
+    private static final long STATES = 181440;
+    private static final int DIAMETER = 31;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static long[] run(Path directory, int maxDepth) throws IOException {
+        return new ExternalBfs(directory, PackedBoard.goal(3), 4096, false).run(maxDepth, (depth, states) -> {});
+    }
+
+    @Test
+    public void coversEveryState() throws IOException {
+        long[] sizes = run(folder.newFolder().toPath(), Integer.MAX_VALUE);
+        assertEquals(DIAMETER+2, sizes.length);
+        assertEquals(0, sizes[DIAMETER+1]);
+        assertEquals(2, sizes[DIAMETER]);
+        assertEquals(STATES, Arrays.stream(sizes).sum());
+    }
+
+    @Test
+    public void exploresTheSmallestBoard() throws IOException {
+        // 2x2: 12 reachable states on a single line of moves
+        long[] sizes = new ExternalBfs(folder.newFolder().toPath(), PackedBoard.goal(2), 4, true)
+                .run(Integer.MAX_VALUE, (depth, states) -> {});
+        assertArrayEquals(new long[] {1, 2, 2, 2, 2, 2, 1, 0}, sizes);
+    }
+
+    @Test
+    public void resumesFromCheckpoint() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        long[] partial = run(directory, 5);
+        assertEquals(6, partial.length);
+
+        long[] resumed = run(directory, Integer.MAX_VALUE);
+        long[] whole = run(folder.newFolder().toPath(), Integer.MAX_VALUE);
+        assertArrayEquals(whole, resumed);
+        assertArrayEquals(partial, Arrays.copyOf(resumed, partial.length));
+    }
+}
@@ -0,0 +1,83 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class MoveSequenceTest {
+
+    private static Direction[] randomMoves(SplittableRandom random, int length) {
+        Direction[] moves = new Direction[length];
+        for (int i = 0; i < length; i++)
+            moves[i] = Direction.values()[random.nextInt(4)];
+        return moves;
+    }
+
+    @Test
+    public void roundTrips() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int length = 0; length < 40; length++) {
+            Direction[] moves = randomMoves(random, length);
+            MoveSequence sequence = MoveSequence.of(moves);
+            assertEquals(length, sequence.length());
+            assertArrayEquals(moves, sequence.toArray());
+            assertArrayEquals(moves, MoveSequence.parse(sequence.toString()).toArray());
+            assertArrayEquals(moves, sequence.transposed().transposed().toArray());
+        }
+    }
+
+    @Test
+    public void longSequencesKeepEveryMove() {
+        Direction[] moves = randomMoves(new SplittableRandom(5), 100_003);
+        MoveSequence sequence = MoveSequence.of(moves);
+        assertEquals(moves.length, sequence.length());
+        for (int step = 0; step < moves.length; step++)
+            assertEquals(moves[step], sequence.get(step));
+    }
+
+    @Test
+    public void transposedSwapsAxes() {
+        MoveSequence sequence = MoveSequence.of(Direction.values()).transposed();
+        for (Direction dir : Direction.values()) {
+            Direction flipped = sequence.get(dir.ordinal());
+            assertEquals(dir == Direction.UP || dir == Direction.DOWN,
+                    flipped == Direction.LEFT || flipped == Direction.RIGHT);
+        }
+    }
+
+    @Test
+    public void replayFollowsBoards() {
+        PackedBoard start = BatchSolver.parse(THREE[0]);
+        MoveSequence sequence = MoveSequence.of(new IdaStarEngine().solve(start).moves());
+
+        Board board = new Board(start);
+        int step = 0;
+        for (Board expected : sequence.boards(start)) {
+            assertTrue(sequence.replay(board, step, step+1));
+            assertEquals(expected, board);
+            step++;
+        }
+        assertEquals(sequence.length(), step);
+        assertTrue(board.isGoal());
+    }
+
+    @Test
+    public void replayStopsAtIllegalMove() {
+        PackedBoard goal = PackedBoard.goal(3);
+        for (Direction dir : Direction.values()) {
+            PackedBoard moved = goal.move(dir);
+            Direction[] moves = {dir, dir, dir};
+            Board board = new Board(goal);
+            // from the bottom right corner the blank can take a single step in two directions, none in the others
+            assertEquals(moved != null, MoveSequence.of(moves).replay(board, 0, 1));
+            assertFalse(MoveSequence.of(moves).replay(new Board(goal), 0, 3));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PackedBoardTest {
+
+    @Test
+    public void keepsEveryCell() {
+        BoardGenerator generator = new BoardGenerator(1);
+        // 2..4 fit into a single long, the rest spread over several
+        for (int dimension = 2; dimension <= 12; dimension++) {
+            PackedBoard board = generator.next(dimension);
+            int[] cells = board.toCells();
+            assertEquals(board, PackedBoard.of(dimension, cells));
+            for (int cell = 0; cell < cells.length; cell++) {
+                assertEquals(cells[cell], board.tileAt(cell));
+                if (cells[cell] == -1)
+                    assertEquals(cell, board.blankIndex());
+            }
+
+            long[] words = new long[PackedBoard.wordCount(dimension) + 1];
+            board.writeWords(words, 1);
+            assertEquals(board, PackedBoard.fromWords(dimension, board.blankIndex(), words, 1));
+        }
+    }
+
+    @Test
+    public void movesLikeBoard() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int dimension = 2; dimension <= 7; dimension++) {
+            PackedBoard packed = PackedBoard.goal(dimension);
+            Board board = new Board(dimension);
+            for (int step = 0; step < 500; step++) {
+                Direction dir = Direction.values()[random.nextInt(4)];
+                PackedBoard moved = packed.move(dir);
+                assertEquals(moved != null, board.move(dir));
+                if (moved != null)
+                    packed = moved;
+                assertEquals(board.pack(), packed);
+                assertEquals(board.blankIndex(), packed.blankIndex());
+            }
+        }
+    }
+
+    @Test
+    public void illegalMovesGiveNull() {
+        PackedBoard goal = PackedBoard.goal(4);
+        // the blank is in the bottom right corner
+        assertNull(goal.move(Direction.UP));
+        assertNull(goal.move(Direction.LEFT));
+        assertTrue(goal.isGoal());
+        assertTrue(!goal.move(Direction.DOWN).isGoal());
+    }
+
+    @Test
+    public void equalBoardsHashAlike() {
+        PackedBoard a = BatchSolver.parse(TestBoards.FOUR[0]);
+        PackedBoard b = BatchSolver.parse(TestBoards.FOUR[0]);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, BatchSolver.parse(TestBoards.FOUR[1]));
+        assertNotEquals(PackedBoard.goal(3), PackedBoard.goal(4));
+        assertArrayEquals(a.toCells(), b.toCells());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsABlank() {
+        PackedBoard.of(2, new int[] {0, 1, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsEveryCell() {
+        PackedBoard.of(3, new int[] {0, 1, 2, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsASingleBlank() {
+        PackedBoard.of(2, new int[] {0, -1, 1, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsTilesOfItsSize() {
+        PackedBoard.of(2, new int[] {0, 1, 3, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsTilesAboveTheBlank() {
+        PackedBoard.of(2, new int[] {0, 1, -2, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsDistinctTiles() {
+        PackedBoard.of(3, new int[] {0, 1, 2, 3, 4, 5, 6, 6, -1});
+    }
+}
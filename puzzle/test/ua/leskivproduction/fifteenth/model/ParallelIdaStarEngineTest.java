@@ -0,0 +1,53 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class ParallelIdaStarEngineTest {
+
+    @Test
+    public void optimalOnAnyAmountOfThreads() {
+        for (int threads : new int[] {1, 2, 4}) {
+            ParallelIdaStarEngine engine = new ParallelIdaStarEngine(new ManhattanHeuristic(), threads);
+            assertEquals(threads, engine.getThreads());
+            for (int i = 0; i < THREE.length; i++)
+                assertOptimal(engine, BatchSolver.parse(THREE[i]), THREE_LENGTHS[i]);
+            for (int i = 0; i < FOUR.length; i++)
+                assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+        }
+    }
+
+    @Test
+    public void agreesWithAStar() {
+        BoardGenerator generator = new BoardGenerator(8);
+        ParallelIdaStarEngine engine = new ParallelIdaStarEngine(new ManhattanHeuristic(), 3);
+        for (int i = 0; i < 30; i++) {
+            PackedBoard board = generator.next(3);
+            assertOptimal(engine, board, optimalLength(board));
+        }
+        assertOptimal(engine, PackedBoard.goal(4), 0);
+    }
+
+    @Test
+    public void enginesComeAndGoWithoutShuttingDown() {
+        // every engine of the same width runs on one shared pool
+        PackedBoard board = BatchSolver.parse(FOUR[1]);
+        for (int i = 0; i < 50; i++)
+            assertOptimal(new ParallelIdaStarEngine(new ManhattanHeuristic(), 2), board, FOUR_LENGTHS[1]);
+    }
+
+    @Test
+    public void threadedSolverFillsTheSharedCache() {
+        PackedBoard board = BatchSolver.parse("7 2 4 5 0 6 8 3 1");
+        Solver solver = new Solver(new Board(board), 2);
+        SearchResult result = solver.getHandle().join();
+        assertSolves(board, result.moves());
+        SearchResult cached = Solver.sharedCache().get(board);
+        assertNotNull(cached);
+        assertEquals(result.moves().length, cached.lowerBound());
+    }
+}
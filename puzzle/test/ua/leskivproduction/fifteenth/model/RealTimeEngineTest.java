@@ -0,0 +1,81 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class RealTimeEngineTest {
+
+    private static void assertReachesGoal(RealTimeEngine engine, PackedBoard board) {
+        List<Direction> streamed = new ArrayList<>();
+        SearchResult result = engine.solve(board, SearchControl.unlimited(), streamed::add);
+        assertEquals(SearchResult.Status.SOLVED, result.status());
+        assertSolves(board, result.moves());
+        assertEquals(Arrays.asList(result.moves()), streamed);
+        assertTrue(result.lowerBound() <= result.moves().length);
+    }
+
+    @Test
+    public void reachesTheGoal() {
+        RealTimeEngine engine = new RealTimeEngine(new ManhattanHeuristic(), 1);
+        for (String board : THREE)
+            assertReachesGoal(engine, BatchSolver.parse(board));
+        for (String board : FOUR)
+            assertReachesGoal(engine, BatchSolver.parse(board));
+    }
+
+    @Test
+    public void reachesTheGoalRememberingLittle() {
+        // a single group, every committed move pushes out one of the last four states
+        RealTimeEngine engine = new RealTimeEngine(new ManhattanHeuristic(), 1, 64);
+        BoardGenerator generator = new BoardGenerator(21);
+        for (int i = 0; i < 10; i++)
+            assertReachesGoal(engine, generator.next(3));
+    }
+
+    @Test
+    public void goalTakesNoMoves() {
+        SearchResult result = new RealTimeEngine(new ManhattanHeuristic(), 1).solve(PackedBoard.goal(4));
+        assertEquals(0, result.moves().length);
+    }
+
+    @Test
+    public void learnedEstimatesKeepTheLargerValue() {
+        LearnedEstimates learned = new LearnedEstimates(LearnedEstimates.DEFAULT_MEMORY);
+        assertEquals(7, learned.get(42, 7));
+        learned.put(42, 10);
+        assertEquals(10, learned.get(42, 7));
+        assertEquals(12, learned.get(42, 12));
+        learned.put(42, 11);
+        assertEquals(11, learned.get(42, 7));
+        learned.clear();
+        assertEquals(7, learned.get(42, 7));
+    }
+
+    @Test
+    public void oldestEstimatesAreForgottenFirst() {
+        LearnedEstimates learned = new LearnedEstimates(64);
+        assertEquals(4, learned.capacity());
+        for (long hash = 1; hash <= 4; hash++)
+            learned.put(hash, 100);
+        learned.put(1, 101);
+        learned.put(5, 100);
+        // 2 was stored longest ago
+        assertEquals(0, learned.get(2, 0));
+        for (long hash : new long[] {1, 3, 4, 5})
+            assertTrue(learned.get(hash, 0) >= 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsRoomForAGroup() {
+        new LearnedEstimates(63);
+    }
+}
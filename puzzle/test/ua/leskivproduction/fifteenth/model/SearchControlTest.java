@@ -0,0 +1,97 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.SearchResult.Status;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SearchControlTest {
+    // far beyond any budget below
+    private static final PackedBoard HARD = new BoardGenerator(10).next(5);
+
+    private static SolverEngine[] engines() {
+        return new SolverEngine[] {
+                new AStarEngine(new ManhattanHeuristic()),
+                new IdaStarEngine(new ManhattanHeuristic()),
+                new ParallelIdaStarEngine(new ManhattanHeuristic(), 2),
+                new BidirectionalEngine(new ManhattanHeuristic()),
+                new AraStarEngine(new ManhattanHeuristic(), 0.5, 0.25),
+        };
+    }
+
+    @Test(timeout = 60_000)
+    public void everyEngineKeepsToTheNodeLimit() {
+        for (SolverEngine engine : engines()) {
+            SearchControl control = new SearchControl(SearchBudget.ofNodes(50_000));
+            SearchResult result = engine.solve(HARD, control);
+            String name = engine.getClass().getSimpleName();
+            assertEquals(name, Status.NODE_LIMIT, result.status());
+            assertTrue(name, control.expandedNodes() >= 50_000);
+            // limits are checked every CHECK_INTERVAL nodes, per thread at worst
+            assertTrue(name, control.expandedNodes() < 50_000 + 4*SearchControl.CHECK_INTERVAL);
+            assertTrue(name, result.lowerBound() >= HARD.manhattan());
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void everyEngineKeepsToTheTimeLimit() {
+        for (SolverEngine engine : engines()) {
+            long start = System.nanoTime();
+            SearchResult result = engine.solve(HARD, new SearchControl(SearchBudget.ofMillis(100)));
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-start);
+            String name = engine.getClass().getSimpleName();
+            assertEquals(name, Status.TIME_LIMIT, result.status());
+            assertTrue(name+" took "+millis+" ms", millis < 2000);
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void cancelledSearchReturnsSoon() throws InterruptedException {
+        SolveHandle handle = SolveHandle.start(HARD, new IdaStarEngine(), SearchBudget.UNLIMITED);
+        Thread.sleep(50);
+        assertFalse(handle.isDone());
+        long start = System.nanoTime();
+        handle.cancel();
+        SearchResult result = handle.join();
+        assertEquals(Status.CANCELLED, result.status());
+        assertNull(result.moves());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-start) < 2000);
+        assertTrue(handle.lowerBound() >= HARD.manhattan());
+    }
+
+    @Test
+    public void interruptCancels() {
+        SearchControl control = SearchControl.unlimited();
+        Thread.currentThread().interrupt();
+        try {
+            assertFalse(control.proceed(1));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(Status.CANCELLED, control.stopReason());
+    }
+
+    @Test
+    public void firstReasonSticks() {
+        SearchControl control = new SearchControl(SearchBudget.ofNodes(10).withTimeLimit(1, TimeUnit.DAYS));
+        assertTrue(control.proceed(5));
+        assertFalse(control.proceed(5));
+        control.cancel();
+        assertEquals(Status.NODE_LIMIT, control.stopReason());
+        assertEquals(10, control.expandedNodes());
+    }
+
+    @Test
+    public void boundsOnlyGrow() {
+        SearchControl control = SearchControl.unlimited();
+        control.reportBound(20);
+        control.reportBound(18);
+        assertEquals(20, control.lowerBound());
+    }
+}
@@ -0,0 +1,109 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class SolutionCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void transposeIsAnInvolution() {
+        BoardGenerator generator = new BoardGenerator(7);
+        for (int dimension = 2; dimension <= 6; dimension++) {
+            for (int i = 0; i < 20; i++) {
+                PackedBoard board = generator.next(dimension);
+                assertEquals(board, SolutionCache.transpose(SolutionCache.transpose(board)));
+            }
+            assertEquals(PackedBoard.goal(dimension), SolutionCache.transpose(PackedBoard.goal(dimension)));
+        }
+    }
+
+    @Test
+    public void transposedBoardReusesTheSolution() {
+        BoardGenerator generator = new BoardGenerator(11);
+        IdaStarEngine engine = new IdaStarEngine();
+        for (int i = 0; i < 20; i++) {
+            PackedBoard board = generator.next(3);
+            PackedBoard transposed = SolutionCache.transpose(board);
+            Direction[] moves = engine.solve(board).moves();
+
+            SolutionCache cache = new SolutionCache(64);
+            cache.put(board, moves, moves.length);
+            SearchResult hit = cache.get(transposed);
+            assertNotNull(hit);
+            assertEquals(moves.length, hit.moves().length);
+            assertSolves(transposed, hit.moves());
+            assertArrayEquals(moves, cache.get(board).moves());
+            assertEquals(2, cache.hits());
+        }
+    }
+
+    @Test
+    public void keepsTheLowerBound() {
+        PackedBoard board = BatchSolver.parse(THREE[1]);
+        Direction[] moves = new ConstructiveEngine().solve(board).moves();
+        SolutionCache cache = new SolutionCache(16);
+        assertNull(cache.get(board));
+        cache.put(board, moves, 21);
+
+        SearchResult hit = cache.get(board);
+        assertEquals(SearchResult.Status.SOLVED, hit.status());
+        assertEquals(21, hit.lowerBound());
+        assertEquals(21, cache.get(SolutionCache.transpose(board)).lowerBound());
+    }
+
+    @Test
+    public void savesAndLoads() throws IOException {
+        BoardGenerator generator = new BoardGenerator(13);
+        IdaStarEngine engine = new IdaStarEngine();
+        SolutionCache cache = new SolutionCache(64);
+        PackedBoard[] boards = new PackedBoard[10];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = generator.next(3);
+            Direction[] moves = engine.solve(boards[i]).moves();
+            cache.put(boards[i], moves, moves.length - i%2);
+        }
+
+        Path file = folder.getRoot().toPath().resolve("solutions.txt");
+        cache.save(file);
+        SolutionCache loaded = new SolutionCache(64);
+        assertEquals(cache.size(), loaded.load(file));
+        for (PackedBoard board : boards) {
+            SearchResult expected = cache.get(board);
+            SearchResult actual = loaded.get(board);
+            assertArrayEquals(expected.moves(), actual.moves());
+            assertEquals(expected.lowerBound(), actual.lowerBound());
+        }
+    }
+
+    @Test
+    public void neverHoldsMoreThanItsCapacity() {
+        BoardGenerator generator = new BoardGenerator(17);
+        SolutionCache cache = new SolutionCache(32);
+        Set<PackedBoard> stored = new HashSet<>();
+        while (stored.size() < 300) {
+            PackedBoard board = generator.next(4);
+            if (stored.contains(board) || stored.contains(SolutionCache.transpose(board)))
+                continue;
+            stored.add(board);
+            cache.put(board, new Direction[0], 0);
+            assertTrue(cache.size() <= 32);
+        }
+        assertEquals(stored.size(), cache.size()+cache.evictions());
+    }
+}
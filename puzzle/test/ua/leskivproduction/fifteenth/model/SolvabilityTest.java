@@ -0,0 +1,101 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolvabilityTest {
+
+    private static Set<PackedBoard> reachable(int dimension) {
+        Set<PackedBoard> seen = new HashSet<>();
+        Queue<PackedBoard> queue = new ArrayDeque<>();
+        seen.add(PackedBoard.goal(dimension));
+        queue.add(PackedBoard.goal(dimension));
+        while (!queue.isEmpty()) {
+            PackedBoard board = queue.poll();
+            for (Direction dir : Direction.values()) {
+                PackedBoard moved = board.move(dir);
+                if (moved != null && seen.add(moved))
+                    queue.add(moved);
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Checks every arrangement of the cells past from against the reachable boards and counts the solvable ones.
+     */
+    private static void permutations(int[] cells, int from, Set<PackedBoard> reachable, int[] solvable) {
+        if (from == cells.length) {
+            PackedBoard board = PackedBoard.of((int) Math.sqrt(cells.length), cells);
+            assertEquals(reachable.contains(board), board.isSolvable());
+            assertEquals(board.isSolvable(), Solvability.isSolvable(new Board(board)));
+            if (board.isSolvable())
+                solvable[0]++;
+            return;
+        }
+        for (int i = from; i < cells.length; i++) {
+            swap(cells, from, i);
+            permutations(cells, from+1, reachable, solvable);
+            swap(cells, from, i);
+        }
+    }
+
+    private static void swap(int[] cells, int i, int j) {
+        int t = cells[i];
+        cells[i] = cells[j];
+        cells[j] = t;
+    }
+
+    @Test
+    public void agreesWithSearchOnEverySmallBoard() {
+        for (int dimension = 2; dimension <= 3; dimension++) {
+            Set<PackedBoard> reachable = reachable(dimension);
+            int[] solvable = {0};
+            permutations(PackedBoard.goal(dimension).toCells(), 0, reachable, solvable);
+            // exactly half of the arrangements
+            assertEquals(reachable.size(), solvable[0]);
+        }
+    }
+
+    @Test
+    public void swappingTwoTilesFlipsIt() {
+        BoardGenerator generator = new BoardGenerator(16);
+        for (int dimension = 4; dimension <= 12; dimension++) {
+            for (int i = 0; i < 20; i++) {
+                int[] cells = generator.next(dimension).toCells();
+                int a = cells[0] == -1? 2 : 0;
+                int b = cells[1] == -1? 2 : 1;
+                assertTrue(PackedBoard.of(dimension, cells).isSolvable());
+                swap(cells, a, b);
+                assertFalse(PackedBoard.of(dimension, cells).isSolvable());
+            }
+        }
+    }
+
+    @Test
+    public void packedStatesAreCheckedInBulk() {
+        int dimension = 4;
+        long[] states = new long[100*PackedBoard.wordCount(dimension)];
+        new BoardGenerator(17).fill(dimension, states, 0, 100);
+        boolean[] solvable = new boolean[100];
+        assertEquals(100, Solvability.check(dimension, states, 100, solvable));
+    }
+
+    @Test
+    public void boardsMissingTilesAreNotSolvable() {
+        Board board = new Board(3);
+        board.clear();
+        board.setCell(0, 0, 0);
+        assertFalse(board.solvable());
+        assertTrue(new Board(3).solvable());
+    }
+}
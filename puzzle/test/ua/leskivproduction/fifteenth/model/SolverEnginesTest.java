@@ -0,0 +1,55 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import static org.junit.Assert.assertEquals;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class SolverEnginesTest {
+
+    private static SolverEngine[] optimalEngines() {
+        return new SolverEngine[] {
+                new AStarEngine(new ManhattanHeuristic()),
+                new IdaStarEngine(new ManhattanHeuristic()),
+        };
+    }
+
+    @Test
+    public void hardestThreeByThreeBoards() {
+        for (SolverEngine engine : optimalEngines())
+            for (int i = 0; i < THREE.length; i++)
+                assertOptimal(engine, BatchSolver.parse(THREE[i]), THREE_LENGTHS[i]);
+    }
+
+    @Test
+    public void fourByFourBoards() {
+        for (SolverEngine engine : optimalEngines())
+            for (int i = 0; i < FOUR.length; i++)
+                assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+    }
+
+    @Test
+    public void enginesAgreeOnRandomBoards() {
+        BoardGenerator generator = new BoardGenerator(17);
+        IdaStarEngine idaStar = new IdaStarEngine();
+        for (int i = 0; i < 20; i++) {
+            PackedBoard board = generator.next(3);
+            assertOptimal(idaStar, board, optimalLength(board));
+        }
+    }
+
+    @Test
+    public void goalTakesNoMoves() {
+        for (SolverEngine engine : optimalEngines())
+            assertOptimal(engine, PackedBoard.goal(3), 0);
+    }
+
+    @Test
+    public void solverUsesAnOptimalEngine() {
+        PackedBoard board = BatchSolver.parse(FOUR[1]);
+        SearchResult result = Solver.defaultEngine(4).solve(board);
+        assertSolves(board, result.moves());
+        assertEquals(FOUR_LENGTHS[1], result.moves().length);
+    }
+}
@@ -0,0 +1,131 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ua.leskivproduction.fifteenth.model.SearchListener.Phase;
+import ua.leskivproduction.fifteenth.model.heuristic.PatternDatabaseHeuristic;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class SolverMetricsTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // what the listener heard from the threads of this test
+    private final List<String> heard = Collections.synchronizedList(new ArrayList<>());
+    private final String thread = Thread.currentThread().getName();
+    private final SearchListener listener = new SearchListener() {
+        @Override
+        public void phaseStarted(Phase phase) {
+            hear("start " + phase);
+        }
+
+        @Override
+        public void phaseFinished(Phase phase, long elapsedNanos) {
+            assertTrue(elapsedNanos > 0);
+            hear("finish " + phase);
+        }
+
+        @Override
+        public void iterationStarted(int bound) {
+            hear("iteration " + bound);
+        }
+
+        @Override
+        public void iterationFinished(int bound, SearchStats stats) {
+            hear("iterated " + bound);
+        }
+
+        @Override
+        public void searchFinished(int dimension, SearchResult result, SearchStats stats) {
+            hear("searched " + result.status());
+        }
+
+        private void hear(String event) {
+            String name = Thread.currentThread().getName();
+            if (name.equals(thread) || name.startsWith("batch-solver-"))
+                heard.add(event);
+        }
+    };
+
+    {
+        SolverMetrics.get().addListener(listener);
+    }
+
+    @After
+    public void removeListener() {
+        SolverMetrics.get().removeListener(listener);
+    }
+
+    private int count(String event) {
+        int count = 0;
+        synchronized (heard) {
+            for (String e : heard)
+                if (e.equals(event))
+                    count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void batchRunsAreReported() throws InterruptedException {
+        SolverMetrics metrics = SolverMetrics.get();
+        long searches = metrics.getSearches();
+        long solved = metrics.getSolved();
+        long expanded = metrics.getExpandedNodes();
+
+        List<PackedBoard> boards = new ArrayList<>();
+        for (String board : THREE)
+            boards.add(BatchSolver.parse(board));
+        boards.add(BatchSolver.parse("2 1 3 0"));
+        new BatchSolver(2, dimension -> new IdaStarEngine(), SearchBudget.UNLIMITED)
+                .solve(boards.iterator(), result -> { });
+
+        // unsolvable boards aren't searched
+        assertEquals(THREE.length, count("searched SOLVED"));
+        assertEquals(THREE.length, count("start SEARCH"));
+        assertEquals(THREE.length, count("finish SEARCH"));
+        assertTrue(metrics.getSearches() >= searches + THREE.length);
+        assertTrue(metrics.getSolved() >= solved + THREE.length);
+        assertTrue(metrics.getExpandedNodes() > expanded);
+    }
+
+    @Test
+    public void iterationsAreTimedFromTheirStart() {
+        PackedBoard board = BatchSolver.parse(THREE[0]);
+        SearchControl control = new SearchControl(SearchBudget.UNLIMITED, SolverMetrics.get());
+        SolverMetrics.get().solve(new IdaStarEngine(), board, control);
+
+        int[] bounds = control.stats().iterationBounds();
+        assertTrue(bounds.length > 0);
+        List<String> expected = new ArrayList<>();
+        expected.add("start SEARCH");
+        for (int bound : bounds) {
+            expected.add("iteration " + bound);
+            expected.add("iterated " + bound);
+        }
+        // the last iteration finds the solution
+        expected.add("iteration " + THREE_LENGTHS[0]);
+        expected.add("finish SEARCH");
+        expected.add("searched SOLVED");
+        assertEquals(expected, heard);
+    }
+
+    @Test
+    public void buildingTablesIsAPhaseOfItsOwn() throws IOException {
+        long before = SolverMetrics.get().getHeuristicMillis();
+        PatternDatabaseHeuristic.load(folder.getRoot().toPath(), 3, "4-4");
+        assertEquals(1, count("start HEURISTIC"));
+        assertEquals(1, count("finish HEURISTIC"));
+        assertTrue(SolverMetrics.get().getHeuristicMillis() >= before);
+    }
+}
@@ -0,0 +1,54 @@
+package ua.leskivproduction.fifteenth.model;
+
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Boards with known optimal solution lengths and checks shared by the tests.
+ */
+final class TestBoards {
+    // the two hardest 3x3 boards
+    static final String[] THREE = {"8 6 7 2 5 4 3 0 1", "6 4 7 8 5 0 3 2 1"};
+    static final int[] THREE_LENGTHS = {31, 31};
+    static final String[] FOUR = {
+            "5 1 6 3 9 7 2 4 10 14 12 8 13 0 11 15",
+            "1 2 8 3 6 14 7 4 5 13 0 11 9 10 12 15",
+            "6 2 3 4 1 11 15 7 5 10 8 12 13 0 9 14",
+    };
+    static final int[] FOUR_LENGTHS = {16, 24, 24};
+
+    private TestBoards() {
+    }
+
+    /**
+     * Replays the moves on the board and checks they reach the goal.
+     */
+    static void assertSolves(PackedBoard board, Direction[] moves) {
+        assertNotNull(moves);
+        Board end = new Board(board);
+        assertTrue(MoveSequence.of(moves).replay(end, 0, moves.length));
+        assertTrue(end.isGoal());
+    }
+
+    /**
+     * Checks the engine proves a solution of the given length optimal.
+     */
+    static void assertOptimal(SolverEngine engine, PackedBoard board, int length) {
+        SearchResult result = engine.solve(board);
+        String name = engine.getClass().getSimpleName();
+        assertEquals(name, SearchResult.Status.SOLVED, result.status());
+        assertEquals(name, length, result.moves().length);
+        assertEquals(name, length, result.lowerBound());
+        assertSolves(board, result.moves());
+    }
+
+    /**
+     * Optimal solution length found by plain A*.
+     */
+    static int optimalLength(PackedBoard board) {
+        return new AStarEngine().solve(board).moves().length;
+    }
+}
@@ -0,0 +1,95 @@
+package ua.leskivproduction.fifteenth.model;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.heuristic.LinearConflictHeuristic;
+import ua.leskivproduction.fifteenth.model.heuristic.ManhattanHeuristic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static ua.leskivproduction.fifteenth.model.TestBoards.*;
+
+public class TranspositionTableTest {
+
+    private static long[] words(PackedBoard board) {
+        long[] words = new long[PackedBoard.wordCount(board.dimension())];
+        board.writeWords(words, 0);
+        return words;
+    }
+
+    @Test
+    public void keepsSmallestDepthAndLargestBound() {
+        TranspositionTable table = new TranspositionTable(4, 1 << 16);
+        long[] state = words(BatchSolver.parse(FOUR[0]));
+        assertEquals(-1, table.find(state, 0));
+
+        table.store(state, 0, 7, 10);
+        table.store(state, 0, 9, 12);
+        table.store(state, 0, 5, 8);
+        int slot = table.find(state, 0);
+        assertEquals(5, table.depth(slot));
+        assertEquals(12, table.bound(slot));
+    }
+
+    @Test
+    public void depthsExpireWithTheirGeneration() {
+        TranspositionTable table = new TranspositionTable(3, 1 << 16);
+        long[] state = words(PackedBoard.goal(3).move(Board.Direction.DOWN));
+        table.store(state, 0, 3, 4);
+        table.nextGeneration();
+        int slot = table.find(state, 0);
+        assertEquals(Integer.MAX_VALUE, table.depth(slot));
+        assertEquals(4, table.bound(slot));
+
+        // a full turn of generations wipes the table instead of reviving old depths
+        for (int i = 0; i < 1 << 16; i++)
+            table.nextGeneration();
+        assertEquals(-1, table.find(state, 0));
+    }
+
+    @Test
+    public void neverGrowsPastItsMemory() {
+        TranspositionTable table = new TranspositionTable(4, 1 << 12);
+        assertTrue(table.capacity()*16L <= 1 << 12);
+        BoardGenerator generator = new BoardGenerator(12);
+        long[] last = null;
+        for (int i = 0; i < 10_000; i++) {
+            last = words(generator.next(4));
+            table.store(last, 0, i % 50, 30);
+        }
+        // whatever got evicted, the newest state is there
+        assertTrue(table.find(last, 0) != -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsRoomForAGroup() {
+        new TranspositionTable(4, 32);
+    }
+
+    @Test
+    public void tinyTablesKeepSearchOptimal() {
+        // eviction only loses pruning, never solutions
+        for (long memory : new long[] {1 << 10, 1 << 20}) {
+            SolverEngine[] engines = {
+                    new IdaStarEngine(new LinearConflictHeuristic(), new TranspositionTable(4, memory)),
+                    new AStarEngine(new ManhattanHeuristic(), new TranspositionTable(4, memory)),
+            };
+            for (SolverEngine engine : engines)
+                for (int i = 0; i < FOUR.length; i++)
+                    assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refusesBoardsOfAnotherSize() {
+        new AStarEngine(new ManhattanHeuristic(), new TranspositionTable(4)).solve(PackedBoard.goal(3));
+    }
+
+    @Test
+    public void solverReusesTablesAcrossSolves() {
+        // 4x4 solves borrow tables from a pool, one after another they must not see stale depths
+        SolverEngine engine = Solver.defaultEngine(4, new ManhattanHeuristic());
+        for (int round = 0; round < 3; round++)
+            for (int i = 0; i < FOUR.length; i++)
+                assertOptimal(engine, BatchSolver.parse(FOUR[i]), FOUR_LENGTHS[i]);
+    }
+}
@@ -0,0 +1,90 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.AStarEngine;
+import ua.leskivproduction.fifteenth.model.BatchSolver;
+import ua.leskivproduction.fifteenth.model.Board.Direction;
+import ua.leskivproduction.fifteenth.model.BoardGenerator;
+import ua.leskivproduction.fifteenth.model.IdaStarEngine;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HeuristicsTest {
+
+    /**
+     * Walks randomly from random boards and checks every incremental update against a full estimate.
+     */
+    private static void assertUpdatesMatch(Heuristic heuristic, int dimension) {
+        BoardGenerator generator = new BoardGenerator(dimension);
+        SplittableRandom random = new SplittableRandom(dimension);
+        for (int walk = 0; walk < 20; walk++) {
+            PackedBoard board = generator.next(dimension);
+            int estimate = heuristic.estimate(board);
+            for (int step = 0; step < 200; step++) {
+                PackedBoard moved = board.move(Direction.values()[random.nextInt(4)]);
+                if (moved == null)
+                    continue;
+                int from = moved.blankIndex();
+                int to = board.blankIndex();
+                estimate = heuristic.update(estimate, moved, moved.tileAt(to), from, to);
+                assertEquals(heuristic.estimate(moved), estimate);
+                board = moved;
+            }
+        }
+    }
+
+    @Test
+    public void manhattanUpdatesIncrementally() {
+        for (int dimension = 2; dimension <= 7; dimension++)
+            assertUpdatesMatch(new ManhattanHeuristic(), dimension);
+    }
+
+    @Test
+    public void manhattanMatchesTheBoards() {
+        BoardGenerator generator = new BoardGenerator(3);
+        ManhattanHeuristic manhattan = new ManhattanHeuristic();
+        for (int i = 0; i < 100; i++) {
+            PackedBoard board = generator.next(4);
+            assertEquals(board.manhattan(), manhattan.estimate(board));
+        }
+        assertEquals(0, manhattan.estimate(PackedBoard.goal(5)));
+    }
+
+    @Test
+    public void conflictAndWalkingDistanceUpdateIncrementally() {
+        for (int dimension = 2; dimension <= 5; dimension++)
+            assertUpdatesMatch(new LinearConflictHeuristic(), dimension);
+        // walking distance tables only go up to 4x4
+        for (int dimension = 2; dimension <= 4; dimension++)
+            assertUpdatesMatch(new WalkingDistanceHeuristic(), dimension);
+    }
+
+    @Test
+    public void conflictAndWalkingDistanceAreAdmissible() {
+        BoardGenerator generator = new BoardGenerator(19);
+        AStarEngine reference = new AStarEngine();
+        ManhattanHeuristic manhattan = new ManhattanHeuristic();
+        LinearConflictHeuristic conflict = new LinearConflictHeuristic();
+        WalkingDistanceHeuristic walking = new WalkingDistanceHeuristic();
+        for (int i = 0; i < 200; i++) {
+            PackedBoard board = generator.next(3);
+            int optimal = reference.solve(board).moves().length;
+            assertTrue(conflict.estimate(board) <= optimal);
+            assertTrue(conflict.estimate(board) >= manhattan.estimate(board));
+            assertTrue(walking.estimate(board) <= optimal);
+        }
+    }
+
+    @Test
+    public void conflictAndWalkingDistanceKeepSearchOptimal() {
+        for (Heuristic heuristic : new Heuristic[] {new LinearConflictHeuristic(), new WalkingDistanceHeuristic()}) {
+            IdaStarEngine engine = new IdaStarEngine(heuristic);
+            assertEquals(24, engine.solve(BatchSolver.parse("1 2 8 3 6 14 7 4 5 13 0 11 9 10 12 15")).moves().length);
+            assertEquals(31, engine.solve(BatchSolver.parse("8 6 7 2 5 4 3 0 1")).moves().length);
+        }
+    }
+}
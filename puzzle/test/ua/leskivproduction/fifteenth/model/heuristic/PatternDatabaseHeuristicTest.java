@@ -0,0 +1,86 @@
+package ua.leskivproduction.fifteenth.model.heuristic;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ua.leskivproduction.fifteenth.model.AStarEngine;
+import ua.leskivproduction.fifteenth.model.BatchSolver;
+import ua.leskivproduction.fifteenth.model.BoardGenerator;
+import ua.leskivproduction.fifteenth.model.IdaStarEngine;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternDatabaseHeuristicTest {
+    private static PatternDatabase[] databases;
+    private static PatternDatabaseHeuristic heuristic;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void build() {
+        int[][] groups = PatternDatabaseHeuristic.partition(3, "4-4");
+        databases = new PatternDatabase[groups.length];
+        for (int g = 0; g < groups.length; g++)
+            databases[g] = new PatternDatabaseBuilder(3, groups[g]).build();
+        heuristic = new PatternDatabaseHeuristic(databases);
+    }
+
+    @Test
+    public void admissibleAndAtLeastManhattan() {
+        BoardGenerator generator = new BoardGenerator(23);
+        AStarEngine reference = new AStarEngine(new ManhattanHeuristic());
+        ManhattanHeuristic manhattan = new ManhattanHeuristic();
+        for (int i = 0; i < 200; i++) {
+            PackedBoard board = generator.next(3);
+            int estimate = heuristic.estimate(board);
+            assertTrue(estimate <= reference.solve(board).moves().length);
+            assertTrue(estimate >= manhattan.estimate(board));
+        }
+        assertEquals(0, heuristic.estimate(PackedBoard.goal(3)));
+    }
+
+    @Test
+    public void partitionsCoverEveryTileOnce() {
+        for (String partition : new String[] {"6-6-3", "7-8"}) {
+            boolean[] seen = new boolean[15];
+            for (int[] group : PatternDatabaseHeuristic.partition(4, partition))
+                for (int tile : group) {
+                    assertFalse(seen[tile]);
+                    seen[tile] = true;
+                }
+            for (boolean tile : seen)
+                assertTrue(tile);
+        }
+    }
+
+    @Test
+    public void keepsSearchOptimal() {
+        IdaStarEngine engine = new IdaStarEngine(heuristic);
+        assertEquals(31, engine.solve(BatchSolver.parse("8 6 7 2 5 4 3 0 1")).moves().length);
+        assertEquals(31, engine.solve(BatchSolver.parse("6 4 7 8 5 0 3 2 1")).moves().length);
+    }
+
+    @Test
+    public void loadsWhatWasWritten() throws IOException {
+        BoardGenerator generator = new BoardGenerator(29);
+        PatternDatabase[] loaded = new PatternDatabase[databases.length];
+        for (int g = 0; g < databases.length; g++) {
+            Path file = folder.getRoot().toPath().resolve(PatternDatabase.fileName(3, databases[g].tiles()));
+            databases[g].write(file);
+            loaded[g] = PatternDatabase.load(file);
+        }
+        PatternDatabaseHeuristic reloaded = new PatternDatabaseHeuristic(loaded);
+        for (int i = 0; i < 100; i++) {
+            PackedBoard board = generator.next(3);
+            assertEquals(heuristic.estimate(board), reloaded.estimate(board));
+        }
+    }
+}
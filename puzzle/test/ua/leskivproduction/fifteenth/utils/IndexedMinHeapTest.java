@@ -0,0 +1,86 @@
+package ua.leskivproduction.fifteenth.utils;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    public void removesInPriorityOrder() {
+        SplittableRandom random = new SplittableRandom(1);
+        IndexedMinHeap heap = new IndexedMinHeap();
+        long[] priorities = new long[1000];
+        for (int id = 0; id < priorities.length; id++) {
+            priorities[id] = random.nextInt(500);
+            heap.add(id, priorities[id]);
+        }
+
+        long last = Long.MIN_VALUE;
+        while (heap.size() > 0) {
+            int id = heap.removeMin();
+            assertTrue(priorities[id] >= last);
+            assertFalse(heap.contains(id));
+            last = priorities[id];
+        }
+    }
+
+    @Test
+    public void decreaseKeyMovesItemsUp() {
+        SplittableRandom random = new SplittableRandom(2);
+        IndexedMinHeap heap = new IndexedMinHeap();
+        long[] priorities = new long[500];
+        for (int id = 0; id < priorities.length; id++) {
+            priorities[id] = 1000 + random.nextInt(1000);
+            heap.add(id, priorities[id]);
+        }
+        for (int i = 0; i < 2000; i++) {
+            int id = random.nextInt(priorities.length);
+            long priority = random.nextInt(2000);
+            assertEquals(priority < priorities[id], heap.decreaseKey(id, priority));
+            priorities[id] = Math.min(priorities[id], priority);
+            assertEquals(priorities[id], heap.priorityOf(id));
+        }
+
+        assertEquals(priorities.length, heap.size());
+        long last = Long.MIN_VALUE;
+        while (heap.size() > 0) {
+            assertEquals(priorities[heap.getMin()], heap.priorityOf(heap.getMin()));
+            int id = heap.removeMin();
+            assertTrue(priorities[id] >= last);
+            last = priorities[id];
+        }
+    }
+
+    @Test
+    public void decreaseKeyAddsMissingItems() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        assertTrue(heap.decreaseKey(40, 7));
+        assertTrue(heap.decreaseKey(3, 9));
+        assertFalse(heap.decreaseKey(40, 8));
+        assertEquals(40, heap.removeMin());
+        assertEquals(3, heap.removeMin());
+    }
+
+    @Test
+    public void clearForgetsItems() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        for (int id = 0; id < 100; id++)
+            heap.add(id, id);
+        heap.clear();
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(5));
+        heap.add(5, 1);
+        assertEquals(5, heap.removeMin());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void emptyHeapHasNoMin() {
+        new IndexedMinHeap().removeMin();
+    }
+}
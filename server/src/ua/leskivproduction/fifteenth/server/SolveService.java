@@ -0,0 +1,134 @@
+package ua.leskivproduction.fifteenth.server;
+
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.SearchBudget;
+import ua.leskivproduction.fifteenth.model.SearchControl;
+import ua.leskivproduction.fifteenth.model.SearchResult;
+import ua.leskivproduction.fifteenth.model.SolutionCache;
+import ua.leskivproduction.fifteenth.model.SolverMetrics;
+import ua.leskivproduction.fifteenth.model.Solver;
+import ua.leskivproduction.fifteenth.model.SolverEngine;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Solves boards on a fixed pool of solver threads, each with its own engines.
+ * A board that is already being solved isn't solved again, every request for it
+ * gets the same future. Unsolvable boards are answered right away, solutions are kept
+ * in a {@link SolutionCache}; answers cut short by the time limit are not, a later request may get further.
+ */
+public class SolveService {
+    private final ExecutorService solvers;
+    private final ThreadLocal<SolverEngine[]> engines = ThreadLocal.withInitial(() -> new SolverEngine[0]);
+    private final Map<PackedBoard, CompletableFuture<SearchResult>> inFlight = new ConcurrentHashMap<>();
+    private final SolutionCache cache;
+    private final long maxMillis;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong solves = new AtomicLong();
+
+    /**
+     * @param maxMillis longest a single solve may take
+     */
+    public SolveService(int threads, int cacheEntries, long maxMillis) {
+        AtomicInteger count = new AtomicInteger();
+        this.solvers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "solver-"+count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = new SolutionCache(cacheEntries);
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @param timeMillis time limit for this board, 0 for the longest allowed;
+     *                   a request joining a solve in flight gets that solve's limit
+     */
+    public CompletableFuture<SearchResult> solve(PackedBoard board, long timeMillis) {
+        requests.incrementAndGet();
+        if (!board.isSolvable())
+            return CompletableFuture.completedFuture(new SearchResult(SearchResult.Status.UNSOLVABLE, null, 0, 0));
+        CompletableFuture<SearchResult> future = new CompletableFuture<>();
+        CompletableFuture<SearchResult> running = inFlight.putIfAbsent(board, future);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running;
+        }
+        // looked up only once the board is ours, a solve that finished before has cached it already
+        SearchResult known = cache.get(board);
+        if (known != null) {
+            cacheHits.incrementAndGet();
+            inFlight.remove(board);
+            future.complete(known);
+            return future;
+        }
+
+        solves.incrementAndGet();
+        long millis = timeMillis > 0? Math.min(timeMillis, maxMillis) : maxMillis;
+        solvers.execute(() -> {
+            try {
+                SearchControl control = new SearchControl(SearchBudget.ofMillis(millis), SolverMetrics.get());
+                SearchResult result = SolverMetrics.get().solve(engine(board.dimension()), board, control);
+                if (result.status() == SearchResult.Status.SOLVED)
+                    cache.put(board, result.moves(), result.lowerBound());
+                // cached before leaving the in-flight map, and requests only look at the cache
+                // after taking the board in it, so none of them misses both
+                inFlight.remove(board);
+                future.complete(result);
+            } catch (Throwable e) {
+                inFlight.remove(board);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private SolverEngine engine(int dimension) {
+        SolverEngine[] bySize = engines.get();
+        if (dimension >= bySize.length) {
+            bySize = Arrays.copyOf(bySize, dimension+1);
+            engines.set(bySize);
+        }
+        if (bySize[dimension] == null)
+            bySize[dimension] = Solver.defaultEngine(dimension);
+        return bySize[dimension];
+    }
+
+    public SolutionCache cache() {
+        return cache;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long cacheHits() {
+        return cacheHits.get();
+    }
+
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    public long solves() {
+        return solves.get();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public void shutdown() {
+        solvers.shutdownNow();
+    }
+}
@@ -0,0 +1,216 @@
+package ua.leskivproduction.fifteenth.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ua.leskivproduction.fifteenth.model.BatchSolver;
+import ua.leskivproduction.fifteenth.model.Moves;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.SearchResult;
+import ua.leskivproduction.fifteenth.model.SolverMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP/JSON front of the solver.
+ *
+ * {@code POST /solve} with {@code {"board": [1, 2, ..., 0], "timeMillis": 500}} or just the numbers,
+ * {@code GET /solve?board=1,2,...,0&timeMillis=500} works as well. Tiles are numbered from 1, 0 is the blank.
+ * The answer is {@code {"status": "SOLVED", "moves": "ULDR..", "length": 4, "expanded": 17, "lowerBound": 4}},
+ * moves being the letters of {@link Moves}. {@code GET /stats} reports request counters.
+ *
+ * Request threads only parse and answer, solving runs on the {@link SolveService} pool,
+ * so slow boards don't hold up the rest. Solver counters are published over JMX as
+ * {@value SolverMetrics#OBJECT_NAME}.
+ *
+ * Usage: {@code SolverServer [--port n] [--threads n] [--cache entries] [--cache-file path] [--max-time ms]},
+ * the cache file is read on start and written back on exit.
+ */
+public class SolverServer {
+    private static final Pattern BOARD = Pattern.compile("\"board\"\\s*:\\s*\\[([^\\]]*)\\]");
+    private static final Pattern TIME = Pattern.compile("\"timeMillis\"\\s*:\\s*(\\d+)");
+
+    private final HttpServer server;
+    private final ExecutorService requestThreads;
+    private final SolveService service;
+
+    public SolverServer(int port, SolveService service, int requestThreads) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.requestThreads = Executors.newFixedThreadPool(requestThreads);
+        server.setExecutor(this.requestThreads);
+        server.createContext("/solve", this::solve);
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestThreads.shutdownNow();
+        service.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        PackedBoard board;
+        long timeMillis;
+        try {
+            String request = "GET".equals(exchange.getRequestMethod())?
+                    queryToJson(exchange.getRequestURI().getRawQuery()) : readBody(exchange);
+            Matcher boardMatch = BOARD.matcher(request);
+            board = BatchSolver.parse(boardMatch.find()? boardMatch.group(1) : request);
+            Matcher timeMatch = TIME.matcher(request);
+            timeMillis = timeMatch.find()? Long.parseLong(timeMatch.group(1)) : 0;
+        } catch (RuntimeException e) {
+            send(exchange, 400, "{\"error\": " + quote(String.valueOf(e.getMessage())) + "}");
+            return;
+        }
+
+        // answered from the solver thread, the request thread is free right away
+        service.solve(board, timeMillis).whenComplete((result, error) -> {
+            try {
+                if (error != null)
+                    send(exchange, 500, "{\"error\": " + quote(String.valueOf(error.getMessage())) + "}");
+                else
+                    send(exchange, 200, toJson(result));
+            } catch (IOException ignored) {
+                // the client has gone
+            }
+        });
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        send(exchange, 200, "{\"requests\": " + service.requests() +
+                ", \"cacheHits\": " + service.cacheHits() +
+                ", \"cacheMisses\": " + service.cache().misses() +
+                ", \"cacheEvictions\": " + service.cache().evictions() +
+                ", \"cacheSize\": " + service.cache().size() +
+                ", \"coalesced\": " + service.coalesced() +
+                ", \"solves\": " + service.solves() +
+                ", \"inFlight\": " + service.inFlight() + "}");
+    }
+
+    static String toJson(SearchResult result) {
+        StringBuilder json = new StringBuilder("{\"status\": \"").append(result.status()).append('"');
+        if (result.moves() != null)
+            json.append(", \"moves\": \"").append(Moves.toString(result.moves())).append('"')
+                    .append(", \"length\": ").append(result.moves().length);
+        json.append(", \"expanded\": ").append(result.expandedNodes())
+                .append(", \"lowerBound\": ").append(result.lowerBound()).append('}');
+        return json.toString();
+    }
+
+    private static String queryToJson(String query) {
+        StringBuilder json = new StringBuilder("{");
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq < 0)
+                    continue;
+                String value;
+                try {
+                    value = URLDecoder.decode(pair.substring(eq+1), "UTF-8");
+                } catch (java.io.UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+                String key = pair.substring(0, eq);
+                if (key.equals("board"))
+                    json.append("\"board\": [").append(value).append("], ");
+                else if (key.equals("timeMillis"))
+                    json.append("\"timeMillis\": ").append(value).append(", ");
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            for (int read; (read = in.read(buffer)) != -1; )
+                body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int code, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheEntries = 100_000;
+        long maxMillis = 30_000;
+        Path cacheFile = null;
+        for (int i = 0; i+1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i+1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i+1]);
+                    break;
+                case "--cache":
+                    cacheEntries = Integer.parseInt(args[i+1]);
+                    break;
+                case "--cache-file":
+                    cacheFile = Paths.get(args[i+1]);
+                    break;
+                case "--max-time":
+                    maxMillis = Long.parseLong(args[i+1]);
+                    break;
+                default:
+                    System.err.println("Unknown option "+args[i]);
+                    System.exit(1);
+            }
+        }
+
+        SolveService service = new SolveService(threads, cacheEntries, maxMillis);
+        if (cacheFile != null) {
+            if (Files.exists(cacheFile))
+                System.out.println("Loaded "+service.cache().load(cacheFile)+" cached solutions");
+            Path file = cacheFile;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    service.cache().save(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
+
+        SolverMetrics.get().registerMBean();
+        SolverServer server = new SolverServer(port, service, 4);
+        server.start();
+        System.out.println("Solver listening on http://localhost:"+server.getPort()+"/solve");
+    }
+}
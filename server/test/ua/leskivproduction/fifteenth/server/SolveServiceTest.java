@@ -0,0 +1,57 @@
+package ua.leskivproduction.fifteenth.server;
+
+import org.junit.After;
+import org.junit.Test;
+import ua.leskivproduction.fifteenth.model.BatchSolver;
+import ua.leskivproduction.fifteenth.model.BoardGenerator;
+import ua.leskivproduction.fifteenth.model.PackedBoard;
+import ua.leskivproduction.fifteenth.model.SearchResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SolveServiceTest {
+    private static final PackedBoard BOARD = BatchSolver.parse("8 6 7 2 5 4 3 0 1");
+
+    private final SolveService service = new SolveService(1, 100, 10_000);
+
+    @After
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void sameBoardIsSolvedOnce() {
+        // keeps the only solver thread busy, so every request below finds the board in flight
+        CompletableFuture<SearchResult> busy = service.solve(new BoardGenerator(3).next(5), 300);
+
+        CompletableFuture<SearchResult> first = service.solve(BOARD, 0);
+        for (int i = 0; i < 4; i++)
+            assertSame(first, service.solve(BOARD, 0));
+        assertEquals(31, first.join().moves().length);
+        busy.join();
+
+        assertEquals(2, service.solves());
+        assertEquals(4, service.coalesced());
+        assertEquals(0, service.inFlight());
+    }
+
+    @Test
+    public void solvedBoardsComeFromTheCache() {
+        SearchResult solved = service.solve(BOARD, 0).join();
+        assertEquals(SearchResult.Status.SOLVED, solved.status());
+        assertEquals(31, service.solve(BOARD, 0).join().moves().length);
+
+        assertEquals(1, service.solves());
+        assertEquals(1, service.cacheHits());
+    }
+
+    @Test
+    public void unsolvableBoardsAreNotSearched() {
+        SearchResult result = service.solve(BatchSolver.parse("2 1 3 0"), 0).join();
+        assertEquals(SearchResult.Status.UNSOLVABLE, result.status());
+        assertEquals(0, service.solves());
+    }
+}
@@ -0,0 +1,75 @@
+package ua.leskivproduction.fifteenth.server;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolverServerTest {
+    private static SolverServer server;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        server = new SolverServer(0, new SolveService(1, 100, 10_000), 2);
+        server.start();
+    }
+
+    @AfterClass
+    public static void stop() {
+        server.stop();
+    }
+
+    @Test
+    public void solvesPostedBoards() throws IOException {
+        HttpURLConnection connection = post("{\"board\": [1, 2, 3, 4, 5, 6, 7, 0, 8]}");
+        assertEquals(200, connection.getResponseCode());
+        String answer = read(connection.getInputStream());
+        assertTrue(answer, answer.contains("\"status\": \"SOLVED\""));
+        assertTrue(answer, answer.contains("\"length\": 1"));
+    }
+
+    @Test
+    public void badBoardsAreRejected() throws IOException {
+        String[] boards = {
+                "1, 2, 3, 4, 5, 6, 7, 8",        // not square
+                "1, 2, 3, 4, 5, 6, 7, 8, 9",     // no blank
+                "1, 2, 3, 0, 5, 6, 7, 8, 0",     // two blanks
+                "1, 2, 3, 4, 5, 6, 7, 9, 0",     // tile too big
+                "1, 2, 3, 4, -5, 6, 7, 8, 0",    // negative tile
+                "1, 2, 3, 4, 4, 6, 7, 8, 0",     // tile twice
+                "1, 2, x, 4, 5, 6, 7, 8, 0",
+        };
+        for (String board : boards) {
+            HttpURLConnection connection = post("{\"board\": [" + board + "]}");
+            assertEquals(board, 400, connection.getResponseCode());
+            assertTrue(board, read(connection.getErrorStream()).startsWith("{\"error\": "));
+        }
+    }
+
+    private static HttpURLConnection post(String body) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + "/solve");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static String read(InputStream in) {
+        try (Scanner scanner = new Scanner(in, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}